@@ -36,11 +36,110 @@ CREATE TABLE IF NOT EXISTS comments (
                                         post_id BIGINT NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     parent_comment_id BIGINT REFERENCES comments(id) ON DELETE CASCADE,
+    path VARCHAR(2000) COLLATE "C",
+    depth INT,
     like_count INT DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
     );
 
+-- 点赞表：(user_id, 目标 id) 唯一，点赞/取消点赞幂等；like_count 由应用批量写回
+CREATE TABLE IF NOT EXISTS post_likes (
+                                          id BIGSERIAL PRIMARY KEY,
+                                          user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    post_id BIGINT NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_post_likes_user_post UNIQUE (user_id, post_id)
+    );
+
+CREATE TABLE IF NOT EXISTS comment_likes (
+                                             id BIGSERIAL PRIMARY KEY,
+                                             user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    comment_id BIGINT NOT NULL REFERENCES comments(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_comment_likes_user_comment UNIQUE (user_id, comment_id)
+    );
+
+-- 热度榜检查点：每个时间窗口一组 (post_id, score)，score 为 updated_at 时刻的衰减后热度，由应用整组替换
+CREATE TABLE IF NOT EXISTS post_scores (
+                                           id BIGSERIAL PRIMARY KEY,
+                                           window_name VARCHAR(16) NOT NULL,
+    post_id BIGINT NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
+    score DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_post_scores_window_post UNIQUE (window_name, post_id)
+    );
+
+-- 关注关系：(follower_id, followee_id) 唯一，关注/取消关注幂等；粉丝数/关注数冗余在 users 上
+CREATE TABLE IF NOT EXISTS user_follows (
+                                            id BIGSERIAL PRIMARY KEY,
+                                            follower_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    followee_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_user_follows_follower_followee UNIQUE (follower_id, followee_id)
+    );
+
+-- 关注动态（写扩散）：每个粉丝一行，created_at 为文章发布时间；每个用户保留的条数由应用定期裁剪
+CREATE TABLE IF NOT EXISTS feed_items (
+                                          id BIGSERIAL PRIMARY KEY,
+                                          user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    post_id BIGINT NOT NULL REFERENCES posts(id) ON DELETE CASCADE,
+    author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_feed_items_user_post UNIQUE (user_id, post_id)
+    );
+
+-- 旧库迁移：早期由应用建表的库里父评论列名为 parent_id，统一为 parent_comment_id（实体、索引、查询均使用该列）
+-- 先补列并拷贝数据再删除旧列，可重复执行
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS parent_comment_id BIGINT;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'comments' AND column_name = 'parent_id') THEN
+        UPDATE comments SET parent_comment_id = parent_id WHERE parent_comment_id IS NULL AND parent_id IS NOT NULL;
+        ALTER TABLE comments DROP COLUMN parent_id;
+    END IF;
+END $$;
+
+-- 父评论外键改为 ON DELETE CASCADE：ddl-auto=update 不会修改已有外键，旧库的外键不带级联
+-- 删除不带级联的外键，没有级联外键时补上，可重复执行
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT c.conname FROM pg_constraint c
+              JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+              WHERE c.conrelid = 'comments'::regclass AND c.contype = 'f'
+                AND a.attname = 'parent_comment_id' AND c.confdeltype <> 'c' LOOP
+        EXECUTE format('ALTER TABLE comments DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint c
+                   JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+                   WHERE c.conrelid = 'comments'::regclass AND c.contype = 'f' AND a.attname = 'parent_comment_id') THEN
+        ALTER TABLE comments ADD CONSTRAINT fk_comments_parent_comment
+            FOREIGN KEY (parent_comment_id) REFERENCES comments(id) ON DELETE CASCADE;
+    END IF;
+END $$;
+
+-- 旧库迁移：早期由应用建表的库里评论作者列名为 user_id，统一为 author_id
+-- 补列、拷贝数据、删除旧列（连同其外键），再补上 author_id 的外键与非空约束，可重复执行
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS author_id BIGINT;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'comments' AND column_name = 'user_id') THEN
+        UPDATE comments SET author_id = user_id WHERE author_id IS NULL;
+        ALTER TABLE comments DROP COLUMN user_id;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint c
+                   JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+                   WHERE c.conrelid = 'comments'::regclass AND c.contype = 'f' AND a.attname = 'author_id') THEN
+        ALTER TABLE comments ADD CONSTRAINT fk_comments_author
+            FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE;
+    END IF;
+END $$;
+ALTER TABLE comments ALTER COLUMN author_id SET NOT NULL;
+
 -- 插入示例数据
 INSERT INTO users (username, email, password, nickname, role) VALUES
                                                                   ('admin', 'admin@xuebao.com', '$2a$10$exampleHash', '系统管理员', 'ADMIN'),
@@ -61,6 +160,46 @@ INSERT INTO comments (content, post_id, author_id, parent_comment_id) VALUES
 -- 创建索引
 CREATE INDEX IF NOT EXISTS idx_posts_author_id ON posts(author_id);
 CREATE INDEX IF NOT EXISTS idx_posts_created_at ON posts(created_at DESC);
+-- 游标分页（keyset）索引：ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_posts_status_created_at_id ON posts(status, created_at DESC, id DESC);
+-- 关注动态读时拉取大 V 文章：按作者取最近的文章
+CREATE INDEX IF NOT EXISTS idx_posts_author_created_at_id ON posts(author_id, created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_comments_post_id ON comments(post_id);
 CREATE INDEX IF NOT EXISTS idx_comments_parent_id ON comments(parent_comment_id);
-CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
\ No newline at end of file
+-- 评论游标分页索引：文章顶级评论 / 评论回复 / 用户评论
+CREATE INDEX IF NOT EXISTS idx_comments_post_parent_created_at_id ON comments(post_id, parent_comment_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_parent_created_at_id ON comments(parent_comment_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_user_created_at_id ON comments(author_id, created_at, id);
+
+-- 评论物化路径：根到本评论的 id 依次补零到 10 位后拼接（见 CommentPath），子树 = path 索引上的一段区间
+-- 旧库补列后回填：一条递归语句补齐所有空路径，可重复执行
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS path VARCHAR(2000) COLLATE "C";
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS depth INT;
+CREATE INDEX IF NOT EXISTS idx_comments_path ON comments(path);
+WITH RECURSIVE tree(id, path, depth) AS (
+    SELECT id, LPAD(id::text, 10, '0'), 0 FROM comments WHERE parent_comment_id IS NULL
+    UNION ALL
+    SELECT c.id, t.path || LPAD(c.id::text, 10, '0'), t.depth + 1
+    FROM comments c JOIN tree t ON c.parent_comment_id = t.id
+)
+UPDATE comments SET path = tree.path, depth = tree.depth
+FROM tree WHERE comments.id = tree.id AND comments.path IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
+CREATE INDEX IF NOT EXISTS idx_post_likes_post_id ON post_likes(post_id);
+CREATE INDEX IF NOT EXISTS idx_comment_likes_comment_id ON comment_likes(comment_id);
+-- 发文时查找粉丝 / 按用户读取关注动态 / 大 V 名单
+CREATE INDEX IF NOT EXISTS idx_user_follows_followee_follower ON user_follows(followee_id, follower_id);
+CREATE INDEX IF NOT EXISTS idx_feed_items_user_created_at_post ON feed_items(user_id, created_at, post_id);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS follower_count INT DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS following_count INT DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_users_follower_count ON users(follower_count);
+
+-- 全文检索：由标题和正文生成的 tsvector 列（插入/更新时自动维护）+ GIN 索引
+-- 'simple' 配置不做中文分词，安装 zhparser 后可替换为中文 text search configuration
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(content, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector);
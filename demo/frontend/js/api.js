@@ -210,6 +210,15 @@ class API {
         }
     }
     
+    // 获取文章评论树（一次请求返回全部层级，替代逐条请求回复）
+    async getCommentTree(postId, maxDepth = null, limit = null) {
+        const params = new URLSearchParams();
+        if (maxDepth !== null) params.append('maxDepth', maxDepth);
+        if (limit !== null) params.append('limit', limit);
+        const query = params.toString();
+        return this.request(`/api/comments/post/${postId}/tree${query ? '?' + query : ''}`);
+    }
+    
     // 获取评论的回复
     async getCommentReplies(commentId, page = 0, size = 20) {
         console.log(`💬 获取评论回复: commentId=${commentId}`);
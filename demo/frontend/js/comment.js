@@ -15,44 +15,24 @@ class CommentManager {
                 `;
             }
             
-            // 调用 API
-            console.log(`📡 调用 API.getPostComments(${postId})`);
-            const response = await window.API.getPostComments(postId);
+            // 一次请求取回整棵评论树，不再逐条请求回复
+            console.log(`📡 调用 API.getCommentTree(${postId})`);
+            const response = await window.API.getCommentTree(postId);
             console.log('📦 API 响应:', response);
             
-            // 🔥 关键修复：处理不同的响应格式
-            let commentsData = [];
+            const tree = (response && response.data) || {};
+            const commentsData = Array.isArray(tree.comments) ? tree.comments : [];
             
-            if (response && typeof response === 'object') {
-                // 情况1: { success: true, data: [...], message: "获取成功" }
-                if (response.success !== undefined && response.data !== undefined) {
-                    commentsData = response.data || [];
-                }
-                // 情况2: 直接数组
-                else if (Array.isArray(response)) {
-                    commentsData = response;
-                }
-                // 情况3: 其他格式
-                else {
-                    commentsData = response || [];
-                }
-            }
+            console.log(`📊 评论数量: ${commentsData.length}（共 ${tree.totalCount || 0} 条）`);
             
-            console.log(`📊 解析后的评论数据:`, commentsData);
-            console.log(`📊 评论数量: ${commentsData.length}`);
-            
-            // 渲染评论
+            // 渲染顶层评论，再把每条评论下的全部回复平铺到其回复容器中
             this.renderComments(commentsData);
-            
-            // 🔥 新增：为每个评论加载回复
-            setTimeout(() => {
-                commentsData.forEach(comment => {
-                    const commentData = comment.data || comment;
-                    if (commentData.id) {
-                        this.loadAndShowReplies(commentData.id);
-                    }
-                });
-            }, 500);
+            commentsData.forEach(comment => {
+                const replies = this.flattenReplies(comment);
+                if (replies.length > 0) {
+                    this.renderReplies(comment.id, replies);
+                }
+            });
             
         } catch (error) {
             console.error('❌ 加载评论失败:', error);
@@ -362,48 +342,14 @@ class CommentManager {
         }
     }
     
-    // 🔥 新增：加载回复
-    static async loadReplies(commentId) {
-        console.log('📥 加载回复，评论ID:', commentId);
-        
-        try {
-            const response = await fetch(`http://localhost:8081/api/comments/${commentId}/replies`);
-            
-            if (!response.ok) {
-                console.log('该评论暂无回复或API不可用');
-                return [];
-            }
-            
-            const result = await response.json();
-            console.log('📥 回复数据:', result);
-            
-            if (result.success && result.data) {
-                return result.data;
-            }
-            return [];
-            
-        } catch (error) {
-            console.error('❌ 加载回复失败:', error);
-            return [];
-        }
-    }
-    
-    // 🔥 新增：加载并显示回复
-    static async loadAndShowReplies(commentId) {
-        console.log('📥 加载并显示回复，评论ID:', commentId);
-        
-        try {
-            const replies = await this.loadReplies(commentId);
-            if (replies.length === 0) {
-                console.log('该评论暂无回复');
-                return;
-            }
-            
-            this.renderReplies(commentId, replies);
-            
-        } catch (error) {
-            console.error('❌ 加载回复失败:', error);
-        }
+    // 按评论树的先序顺序平铺某条评论下的全部回复
+    static flattenReplies(comment) {
+        const result = [];
+        (comment.replies || []).forEach(reply => {
+            result.push(reply);
+            result.push(...this.flattenReplies(reply));
+        });
+        return result;
     }
     
     // 🔥 新增：渲染回复列表
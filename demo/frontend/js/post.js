@@ -235,6 +235,8 @@ static async loadPost(id) {
                 id: post.id || 0,
                 title: this.escapeHtml(post.title || '无标题'),
                 content: this.escapeHtml(post.content || ''),
+                // 列表接口返回 PostSummary（不含正文），摘要为空时由后端从正文截取
+                summary: this.escapeHtml(post.summary || post.content || ''),
                 author: author,
                 createdAt: createdAt,
                 updatedAt: post.updatedAt || post.createdAt || createdAt,
@@ -282,7 +284,7 @@ static async loadPost(id) {
                     </div>
                     
                     <div class="post-excerpt" data-testid="post-excerpt">
-                        ${post.content.substring(0, 150)}${post.content.length > 150 ? '...' : ''}
+                        ${post.summary.substring(0, 150)}${post.summary.length > 150 ? '...' : ''}
                     </div>
                     
                     <div class="post-footer">
@@ -0,0 +1,136 @@
+package com.xuebao.demo.benchmark;
+
+import com.xuebao.demo.dto.CommentDTO;
+import com.xuebao.demo.dto.response.AuthorSummary;
+import com.xuebao.demo.dto.response.CommentResponse;
+import com.xuebao.demo.dto.response.CommentTree;
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.cache.CommentAuthorCache;
+import com.xuebao.demo.util.CommentTreeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 评论映射：一篇文章 commentCount 条评论，每条顶层评论下挂 fanOut 条回复、回复再挂 fanOut 条（三层）
+ * dtoList —— CommentDTO.fromEntity 逐条转换扁平列表；
+ * treeBuilder —— 与 /tree 接口相同的路径：投影行只带作者 id，经 CommentAuthorCache 回填作者（缓存已预热，
+ * 只测命中路径），再由 CommentTreeBuilder 一次组装
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentMappingBenchmark {
+
+    @Param({"100", "1000"})
+    private int commentCount;
+
+    @Param({"3"})
+    private int fanOut;
+
+    private List<Comment> roots;
+    private List<Comment> all;
+    private List<CommentResponse> rows;
+    private CommentAuthorCache authorCache;
+
+    @Setup
+    public void setUp() {
+        User author = new User("benchmark_user", "secret", "benchmark@xuebao.com");
+        author.setId(1L);
+        Post post = new Post();
+        post.setId(1L);
+
+        roots = new ArrayList<>();
+        all = new ArrayList<>();
+        rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long nextId = 1;
+        List<Comment> level = new ArrayList<>();
+        while (all.size() < commentCount) {
+            Comment comment = newComment(nextId++, post, author, now);
+            roots.add(comment);
+            all.add(comment);
+            level.add(comment);
+            for (int depth = 1; depth < 3 && all.size() < commentCount; depth++) {
+                List<Comment> next = new ArrayList<>();
+                for (Comment parent : level) {
+                    for (int i = 0; i < fanOut && all.size() < commentCount; i++) {
+                        Comment reply = newComment(nextId++, post, author, now);
+                        reply.setParentComment(parent);
+                        parent.getReplies().add(reply);
+                        all.add(reply);
+                        next.add(reply);
+                    }
+                }
+                level = next;
+            }
+            level = new ArrayList<>();
+        }
+        for (Comment comment : all) {
+            rows.add(new CommentResponse(comment.getId(), comment.getContent(), comment.getCreatedAt(),
+                    comment.getUpdatedAt(), author.getId(), post.getId(),
+                    comment.getParentComment() == null ? null : comment.getParentComment().getId(),
+                    comment.getLikeCount()));
+        }
+        authorCache = new CommentAuthorCache(authorRepository(author), 20_000, Duration.ofMinutes(10));
+        authorCache.getAll(Set.of(author.getId()));
+    }
+
+    @Benchmark
+    public List<CommentDTO> dtoList() {
+        List<CommentDTO> result = new ArrayList<>(all.size());
+        for (Comment comment : all) {
+            result.add(CommentDTO.fromEntity(comment));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CommentTree treeBuilder() {
+        Map<Long, AuthorSummary> authors = authorCache.getAll(
+                rows.stream().map(row -> row.getAuthor().getId()).collect(Collectors.toSet()));
+        for (CommentResponse row : rows) {
+            AuthorSummary summary = authors.get(row.getAuthor().getId());
+            if (summary != null) {
+                row.setAuthor(CommentResponse.CommentAuthor.from(summary));
+            }
+        }
+        return CommentTreeBuilder.build(1L, rows, null, null);
+    }
+
+    // 只实现作者摘要的批量查询，供缓存预热使用
+    private static UserRepository authorRepository(User author) {
+        AuthorSummary summary = new AuthorSummary(author.getId(), author.getUsername(), author.getNickname(), null);
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAuthorSummariesByIdIn")) {
+                        return ((Collection<?>) args[0]).contains(author.getId()) ? List.of(summary) : List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Comment newComment(long id, Post post, User author, LocalDateTime now) {
+        Comment comment = new Comment("评论内容 " + id, post, author);
+        comment.setId(id);
+        comment.setCreatedAt(now.minusSeconds(id));
+        comment.setLikeCount(0);
+        comment.setReplies(new ArrayList<>());
+        return comment;
+    }
+}
@@ -0,0 +1,65 @@
+package com.xuebao.demo.benchmark;
+
+import com.xuebao.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 解析基准：
+ * perRequestParsers —— 旧实现，每次调用新建 JwtParser，validateToken + extractUsername 解析两次；
+ * singletonParser —— 复用解析器、一次 parse；
+ * verifiedTokenCache —— 在此基础上命中已验证令牌缓存；
+ * validateThenExtract —— 公共 API validateToken + extractUsername（两次查缓存）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final SecretKey KEY =
+            Keys.hmacShaKeyFor("your-very-long-secret-key-must-be-at-least-32-characters-long".getBytes());
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(0);
+        cached = new JwtUtil();
+        token = cached.generateToken("benchmark_user");
+        cached.parse(token);
+    }
+
+    @Benchmark
+    public String perRequestParsers() {
+        Claims validated = Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody();
+        if (validated == null) {
+            return null;
+        }
+        return Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singletonParser() {
+        return uncached.parse(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifiedTokenCache() {
+        return cached.parse(token).getSubject();
+    }
+
+    @Benchmark
+    public String validateThenExtract() {
+        return cached.validateToken(token) ? cached.extractUsername(token) : null;
+    }
+}
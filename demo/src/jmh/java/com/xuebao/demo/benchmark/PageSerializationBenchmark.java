@@ -0,0 +1,76 @@
+package com.xuebao.demo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章分页响应的 Jackson 序列化（与 Spring MVC 相同的 ObjectMapper 配置）
+ * page —— 直接序列化 Page&lt;Post&gt;；wrappedPage —— 再包一层 ResponseWrapper（接口实际返回的结构）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    @Param({"2000"})
+    private int contentLength;
+
+    private ObjectWriter writer;
+    private Page<Post> page;
+    private ResponseWrapper<Page<Post>> wrapped;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        User author = new User("benchmark_user", "secret", "benchmark@xuebao.com");
+        author.setId(1L);
+        author.setCreatedAt(LocalDateTime.now());
+        String content = "正文".repeat(contentLength / 2);
+        List<Post> posts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post();
+            post.setId((long) i + 1);
+            post.setTitle("文章标题 " + i);
+            post.setContent(content);
+            post.setSummary("摘要 " + i);
+            post.setAuthor(author);
+            post.setStatus(PostStatus.PUBLISHED);
+            post.setCreatedAt(LocalDateTime.now());
+            posts.add(post);
+        }
+        page = new PageImpl<>(posts, PageRequest.of(0, pageSize), 1000);
+        wrapped = ResponseWrapper.success(page);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] wrappedPage() throws Exception {
+        return writer.writeValueAsBytes(wrapped);
+    }
+}
@@ -0,0 +1,48 @@
+package com.xuebao.demo.benchmark;
+
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseWrapper 构造（每个接口响应一次）：
+ * perInstanceFormatter —— 旧实现，每次构造都 DateTimeFormatter.ofPattern 再格式化 LocalDateTime.now()；
+ * success —— 当前实现（共享格式化器）；
+ * timestampOnly —— 仅 LocalDateTime.now() + 格式化，作为下限参考
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWrapperBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Object data = new Object();
+
+    @Benchmark
+    public ResponseWrapper<Object> perInstanceFormatter() {
+        ResponseWrapper<Object> wrapper = new ResponseWrapper<>();
+        wrapper.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        wrapper.setSuccess(true);
+        wrapper.setCode("200");
+        wrapper.setMessage("操作成功");
+        wrapper.setData(data);
+        return wrapper;
+    }
+
+    @Benchmark
+    public ResponseWrapper<Object> success() {
+        return ResponseWrapper.success(data);
+    }
+
+    @Benchmark
+    public String timestampOnly() {
+        return LocalDateTime.now().format(FORMATTER);
+    }
+}
@@ -0,0 +1,38 @@
+package com.xuebao.demo.filter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 过滤器公开路径判断：每个请求都会执行一次
+ * 分别覆盖命中排除列表前部、末尾以及完全不命中（需要认证）的路径
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcludedPathBenchmark {
+
+    @Param({"GET /api/posts/42", "GET /error", "POST /api/comments", "PUT /api/posts/42"})
+    private String request;
+
+    private JwtAuthenticationFilter filter;
+    private String method;
+    private String uri;
+
+    @Setup
+    public void setUp() {
+        filter = new JwtAuthenticationFilter();
+        int space = request.indexOf(' ');
+        method = request.substring(0, space);
+        uri = request.substring(space + 1);
+    }
+
+    @Benchmark
+    public boolean isExcludedPath() {
+        return filter.isExcludedPath(method, uri);
+    }
+}
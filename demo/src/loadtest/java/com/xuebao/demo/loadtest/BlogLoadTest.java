@@ -0,0 +1,308 @@
+package com.xuebao.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 端到端压测：H2（PostgreSQL 模式）上初始化数据后，用进程内 HttpClient 对文章、评论和登录接口施加混合读写流量，
+ * 输出每个接口的 p50/p99 延迟、吞吐量、错误数和每请求 SQL 语句数（target/loadtest-report.json）。
+ * 只在 loadtest 配置下编译运行：mvn -Ploadtest test，数据量与时长通过 -Dloadtest.* 调整（见 pom.xml）。
+ * 每请求语句数超出预算（N+1）或相对基线结果退化（如 LIKE 全表扫描随数据量变慢）时失败。
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BlogLoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(BlogLoadTest.class);
+
+	private static final String PASSWORD = "password";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private LoadTestSeeder.Dataset dataset;
+	private List<String> tokens;
+
+	@Test
+	void mixedTraffic() throws Exception {
+		long users = Long.getLong("loadtest.users", 1_000);
+		long posts = Long.getLong("loadtest.posts", 10_000);
+		long comments = Long.getLong("loadtest.comments", 100_000);
+		int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+		int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+		int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+		int profileRequests = Integer.getInteger("loadtest.profile-requests", 20);
+
+		dataset = new LoadTestSeeder(jdbcTemplate)
+				.seed(users, posts, comments, 0.3, passwordEncoder.encode(PASSWORD));
+		tokens = loginPool(Math.min(users, 50));
+
+		List<Operation> operations = operations();
+		run(operations, concurrency, warmupSeconds, null);
+
+		Map<String, Object> settings = new LinkedHashMap<>();
+		settings.put("users", users);
+		settings.put("posts", posts);
+		settings.put("comments", comments);
+		settings.put("concurrency", concurrency);
+		settings.put("durationSeconds", durationSeconds);
+		LoadTestReport report = new LoadTestReport(settings, durationSeconds);
+		run(operations, concurrency, durationSeconds, report);
+		profileQueries(operations, profileRequests, report);
+
+		log.info("压测结果：{}", report.toTable());
+		Path output = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+		report.writeJson(output);
+
+		double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+		List<String> failures = new ArrayList<>();
+		for (Operation operation : operations) {
+			LoadTestReport.EndpointResult result = report.getEndpoints().get(operation.name);
+			if (result.requests > 0 && (double) result.errors / result.requests > maxErrorRate) {
+				failures.add(String.format("%s 错误率 %d/%d", operation.name, result.errors, result.requests));
+			}
+			if (result.queriesPerRequest > operation.queryBudget) {
+				failures.add(String.format("%s 每请求 %.2f 条语句，预算 %d", operation.name,
+						result.queriesPerRequest, operation.queryBudget));
+			}
+		}
+		String baseline = System.getProperty("loadtest.baseline");
+		if (baseline != null && !baseline.isBlank() && Files.exists(Path.of(baseline))) {
+			failures.addAll(report.compareWith(Path.of(baseline),
+					Double.parseDouble(System.getProperty("loadtest.max-p99-regression", "0.5")),
+					Double.parseDouble(System.getProperty("loadtest.min-p99-delta-ms", "5"))));
+		}
+		assertThat(failures).as("压测退化，报告见 " + output.toAbsolutePath()).isEmpty();
+	}
+
+	/**
+	 * 流量构成：name 为统计用的路由模板，weight 为相对权重，queryBudget 为每请求 SQL 语句数上限
+	 */
+	private List<Operation> operations() {
+		List<Operation> operations = new ArrayList<>();
+		operations.add(new Operation("GET /api/posts", 20, 2,
+				random -> get("/api/posts?page=" + random.nextInt(50) + "&size=10")));
+		operations.add(new Operation("GET /api/posts?mode=cursor", 5, 1,
+				random -> get("/api/posts?mode=cursor&size=10")));
+		operations.add(new Operation("GET /api/posts?keyword=", 3, 2,
+				random -> get("/api/posts?keyword=" + random.nextInt(97) + "&size=10")));
+		operations.add(new Operation("GET /api/posts/{id}", 25, 1,
+				random -> get("/api/posts/" + hotPostId(random))));
+		operations.add(new Operation("GET /api/posts/trending", 5, 0,
+				random -> get("/api/posts/trending?window=24h&size=20")));
+		operations.add(new Operation("GET /api/feed", 5, 2,
+				random -> get("/api/feed?size=20", token(random))));
+		operations.add(new Operation("GET /api/comments/post/{id}?mode=cursor", 15, 3,
+				random -> get("/api/comments/post/" + hotPostId(random) + "?mode=cursor&size=20")));
+		operations.add(new Operation("GET /api/comments/post/{id}/tree", 5, 2,
+				random -> get("/api/comments/post/" + hotPostId(random) + "/tree")));
+		operations.add(new Operation("POST /api/comments", 8, 6,
+				random -> post("/api/comments", "{\"content\":\"压测评论\",\"post\":{\"id\":" + hotPostId(random) + "}}",
+						token(random))));
+		operations.add(new Operation("POST /api/posts/{id}/like", 8, 3,
+				random -> post("/api/posts/" + hotPostId(random) + "/like", "", token(random))));
+		operations.add(new Operation("POST /login", 3, 1,
+				random -> post("/login", loginBody(1 + random.nextLong(dataset.lastUserId - dataset.firstUserId + 1)), null)));
+		return operations;
+	}
+
+	/**
+	 * concurrency 个线程按权重随机发请求，持续 seconds 秒；report 为空时只预热不记录
+	 */
+	private void run(List<Operation> operations, int concurrency, int seconds, LoadTestReport report) throws Exception {
+		int totalWeight = operations.stream().mapToInt(operation -> operation.weight).sum();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		List<Future<Map<String, Recorder>>> futures = new ArrayList<>();
+		for (int i = 0; i < concurrency; i++) {
+			futures.add(executor.submit(() -> {
+				Map<String, Recorder> recorders = new HashMap<>();
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					Operation operation = pick(operations, random.nextInt(totalWeight));
+					HttpRequest request = operation.request.apply(random);
+					long started = System.nanoTime();
+					boolean ok;
+					try {
+						ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+					} catch (Exception e) {
+						ok = false;
+					}
+					recorders.computeIfAbsent(operation.name, name -> new Recorder())
+							.record(System.nanoTime() - started, ok);
+				}
+				return recorders;
+			}));
+		}
+		Map<String, Recorder> merged = new HashMap<>();
+		for (Future<Map<String, Recorder>> future : futures) {
+			future.get().forEach((name, recorder) -> merged.computeIfAbsent(name, key -> new Recorder()).merge(recorder));
+		}
+		executor.shutdown();
+		if (report != null) {
+			for (Operation operation : operations) {
+				Recorder recorder = merged.getOrDefault(operation.name, new Recorder());
+				report.endpoint(operation.name).setLatencies(recorder.nanos, recorder.count, recorder.errors);
+			}
+		}
+	}
+
+	/**
+	 * 顺序执行每个接口若干次，用 Hibernate 统计的语句数差值得到每请求语句数
+	 * （JdbcTemplate 执行的计数器批量写回不计入）
+	 */
+	private void profileQueries(List<Operation> operations, int requests, LoadTestReport report) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (Operation operation : operations) {
+			long before = statistics.getPrepareStatementCount();
+			for (int i = 0; i < requests; i++) {
+				client.send(operation.request.apply(ThreadLocalRandom.current()), HttpResponse.BodyHandlers.discarding());
+			}
+			report.endpoint(operation.name).queriesPerRequest =
+					(double) (statistics.getPrepareStatementCount() - before) / requests;
+		}
+	}
+
+	private List<String> loginPool(long size) throws Exception {
+		List<String> result = new ArrayList<>();
+		for (long i = 1; i <= size; i++) {
+			HttpResponse<String> response = client.send(post("/login", loginBody(i), null), HttpResponse.BodyHandlers.ofString());
+			assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+			result.add(objectMapper.readTree(response.body()).findValue("token").asText());
+		}
+		return result;
+	}
+
+	// 偏斜分布：少数热门文章承担大部分访问
+	private long hotPostId(ThreadLocalRandom random) {
+		long span = dataset.lastPostId - dataset.firstPostId + 1;
+		return dataset.firstPostId + (long) (span * Math.pow(random.nextDouble(), 3));
+	}
+
+	private String token(ThreadLocalRandom random) {
+		return tokens.get(random.nextInt(tokens.size()));
+	}
+
+	private static String loginBody(long userNumber) {
+		return "{\"username\":\"load_user_" + userNumber + "\",\"password\":\"" + PASSWORD + "\"}";
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+	}
+
+	private HttpRequest get(String path, String token) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Authorization", "Bearer " + token)
+				.GET().build();
+	}
+
+	private HttpRequest post(String path, String json, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	private static Operation pick(List<Operation> operations, int ticket) {
+		for (Operation operation : operations) {
+			ticket -= operation.weight;
+			if (ticket < 0) {
+				return operation;
+			}
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	private static final class Operation {
+		final String name;
+		final int weight;
+		final int queryBudget;
+		final Function<ThreadLocalRandom, HttpRequest> request;
+
+		Operation(String name, int weight, int queryBudget, Function<ThreadLocalRandom, HttpRequest> request) {
+			this.name = name;
+			this.weight = weight;
+			this.queryBudget = queryBudget;
+			this.request = request;
+		}
+	}
+
+	/**
+	 * 单线程延迟记录（纳秒），线程结束后合并
+	 */
+	private static final class Recorder {
+		long[] nanos = new long[1024];
+		int count;
+		long errors;
+
+		void record(long elapsed, boolean ok) {
+			if (count == nanos.length) {
+				nanos = Arrays.copyOf(nanos, count * 2);
+			}
+			nanos[count++] = elapsed;
+			if (!ok) {
+				errors++;
+			}
+		}
+
+		void merge(Recorder other) {
+			if (count + other.count > nanos.length) {
+				nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+			}
+			System.arraycopy(other.nanos, 0, nanos, count, other.count);
+			count += other.count;
+			errors += other.errors;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.xuebao.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测结果：按接口汇总延迟分位数、吞吐量、错误数和每请求 SQL 语句数，输出为表格和 JSON，
+ * 并可与上一次（基线）的 JSON 结果比较
+ */
+class LoadTestReport {
+
+	private final Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+	private final Map<String, Object> settings;
+	private final double durationSeconds;
+
+	LoadTestReport(Map<String, Object> settings, double durationSeconds) {
+		this.settings = settings;
+		this.durationSeconds = durationSeconds;
+	}
+
+	EndpointResult endpoint(String name) {
+		return endpoints.computeIfAbsent(name, EndpointResult::new);
+	}
+
+	Map<String, EndpointResult> getEndpoints() {
+		return endpoints;
+	}
+
+	String toTable() {
+		StringBuilder table = new StringBuilder(String.format("%n%-42s %9s %7s %10s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "queries"));
+		endpoints.values().forEach(result -> table.append(String.format("%-42s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+				result.name, result.requests, result.errors, result.requests / durationSeconds,
+				result.p50Millis, result.p99Millis, result.maxMillis, result.queriesPerRequest)));
+		return table.toString();
+	}
+
+	void writeJson(Path path) throws IOException {
+		Map<String, Object> root = new LinkedHashMap<>();
+		root.put("settings", settings);
+		root.put("durationSeconds", durationSeconds);
+		Map<String, Object> results = new LinkedHashMap<>();
+		endpoints.values().forEach(result -> {
+			Map<String, Object> values = new LinkedHashMap<>();
+			values.put("requests", result.requests);
+			values.put("errors", result.errors);
+			values.put("throughputPerSecond", result.requests / durationSeconds);
+			values.put("p50Millis", result.p50Millis);
+			values.put("p99Millis", result.p99Millis);
+			values.put("maxMillis", result.maxMillis);
+			values.put("queriesPerRequest", result.queriesPerRequest);
+			results.put(result.name, values);
+		});
+		root.put("endpoints", results);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), root);
+	}
+
+	/**
+	 * 与基线比较 p99 和每请求语句数，返回超出容忍范围的接口说明
+	 * p99 同时要求相对增幅超过 maxRegression 且绝对增量超过 minDeltaMillis，避免小数值抖动误报
+	 */
+	List<String> compareWith(Path baseline, double maxRegression, double minDeltaMillis) throws IOException {
+		List<String> regressions = new ArrayList<>();
+		JsonNode previous = new ObjectMapper().readTree(baseline.toFile()).path("endpoints");
+		endpoints.values().forEach(result -> {
+			JsonNode before = previous.path(result.name);
+			if (before.isMissingNode()) {
+				return;
+			}
+			double p99Before = before.path("p99Millis").asDouble();
+			if (result.p99Millis > p99Before * (1 + maxRegression) && result.p99Millis - p99Before > minDeltaMillis) {
+				regressions.add(String.format("%s p99 %.2f ms -> %.2f ms", result.name, p99Before, result.p99Millis));
+			}
+			double queriesBefore = before.path("queriesPerRequest").asDouble();
+			if (result.queriesPerRequest > queriesBefore + 0.5) {
+				regressions.add(String.format("%s 每请求语句数 %.2f -> %.2f", result.name, queriesBefore, result.queriesPerRequest));
+			}
+		});
+		return regressions;
+	}
+
+	/**
+	 * 单个接口的结果
+	 */
+	static class EndpointResult {
+		final String name;
+		long requests;
+		long errors;
+		double p50Millis;
+		double p99Millis;
+		double maxMillis;
+		double queriesPerRequest;
+
+		EndpointResult(String name) {
+			this.name = name;
+		}
+
+		void setLatencies(long[] nanos, int count, long errorCount) {
+			long[] sorted = Arrays.copyOf(nanos, count);
+			Arrays.sort(sorted);
+			requests = count;
+			errors = errorCount;
+			p50Millis = percentile(sorted, 0.50);
+			p99Millis = percentile(sorted, 0.99);
+			maxMillis = count == 0 ? 0 : sorted[count - 1] / 1_000_000.0;
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(quantile * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+		}
+	}
+}
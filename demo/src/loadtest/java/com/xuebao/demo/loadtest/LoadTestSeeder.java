@@ -0,0 +1,122 @@
+package com.xuebao.demo.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 压测数据初始化（H2 PostgreSQL 兼容模式）
+ * 用 INSERT ... SELECT FROM SYSTEM_RANGE 在数据库内批量生成，百万级数据不经过 JDBC 往返；
+ * 表为空的前提下主键连续，返回各表的 id 区间供流量生成使用
+ */
+class LoadTestSeeder {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadTestSeeder.class);
+
+	// 每批生成的行数，避免单条语句的撤销日志过大
+	private static final long BATCH_ROWS = 500_000;
+
+	// 数据库开启了 DATABASE_TO_LOWER，SYSTEM_RANGE 的列名 X 需要加引号引用，这里统一改名为 n
+	private static final String RANGE = "(SELECT \"X\" AS n FROM SYSTEM_RANGE(?, ?)) r";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	LoadTestSeeder(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	Dataset seed(long users, long posts, long comments, double replyRatio, String passwordHash) {
+		long started = System.nanoTime();
+
+		inBatches(users, (from, to) -> jdbcTemplate.update(
+				"INSERT INTO users (username, password, email, nickname, role, enabled, created_at, updated_at, "
+						+ "post_count, follower_count, following_count) "
+						+ "SELECT 'load_user_' || n, ?, 'load_user_' || n || '@xuebao.com', '压测用户' || n, 'USER', TRUE, "
+						+ "DATEADD('SECOND', -n, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, 0, 0, 0 "
+						+ "FROM " + RANGE, passwordHash, from, to));
+		long[] userIds = idRange("users");
+
+		inBatches(posts, (from, to) -> jdbcTemplate.update(
+				"INSERT INTO posts (title, content, summary, author_id, status, keywords, created_at, updated_at, "
+						+ "view_count, like_count, comment_count) "
+						+ "SELECT '压测文章 ' || n || ' Spring Boot 性能 ' || MOD(n, 97), "
+						+ "REPEAT('这是一段用于压测的文章正文，包含若干常见的中文词汇和 English words。', 8) || n, "
+						+ "'摘要 ' || n, ? + MOD(n * 7, ?), 'PUBLISHED', 'spring,java,' || MOD(n, 13), "
+						+ "DATEADD('SECOND', -n, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, MOD(n, 1000), MOD(n, 50), 0 "
+						+ "FROM " + RANGE, userIds[0], userIds[1] - userIds[0] + 1, from, to));
+		long[] postIds = idRange("posts");
+		long postCount = postIds[1] - postIds[0] + 1;
+		long userCount = userIds[1] - userIds[0] + 1;
+
+		// 顶级评论：第 n 条属于第 MOD(n, 文章数) 篇文章；回复挂在顶级评论下，与父评论同属一篇文章
+		long topLevel = Math.max(1, Math.round(comments * (1 - replyRatio)));
+		inBatches(topLevel, (from, to) -> jdbcTemplate.update(
+				"INSERT INTO comments (content, post_id, author_id, parent_comment_id, created_at, updated_at, like_count) "
+						+ "SELECT '压测评论 ' || n, ? + MOD(n, ?), ? + MOD(n * 13, ?), NULL, "
+						+ "DATEADD('SECOND', -n, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, 0 "
+						+ "FROM " + RANGE, postIds[0], postCount, userIds[0], userCount, from, to));
+		long[] topLevelIds = idRange("comments");
+
+		long replies = comments - topLevel;
+		if (replies > 0) {
+			inBatches(replies, (from, to) -> jdbcTemplate.update(
+					"INSERT INTO comments (content, post_id, author_id, parent_comment_id, created_at, updated_at, like_count) "
+							+ "SELECT '压测回复 ' || n, p.post_id, ? + MOD(n * 17, ?), p.id, "
+							+ "DATEADD('SECOND', n, p.created_at), CURRENT_TIMESTAMP, 0 "
+							+ "FROM " + RANGE + " JOIN comments p ON p.id = ? + MOD(r.n, ?)",
+					userIds[0], userCount, from, to, topLevelIds[0], topLevel));
+		}
+
+		// 物化路径（见 CommentPath）：顶级评论为自身 id 段，回复只有一层，为父路径 + 自身 id 段
+		jdbcTemplate.update("UPDATE comments SET depth = 0, path = LPAD(CAST(id AS VARCHAR), 10, '0') "
+				+ "WHERE parent_comment_id IS NULL");
+		jdbcTemplate.update("UPDATE comments c SET depth = 1, path = "
+				+ "(SELECT p.path FROM comments p WHERE p.id = c.parent_comment_id) || LPAD(CAST(c.id AS VARCHAR), 10, '0') "
+				+ "WHERE c.parent_comment_id IS NOT NULL");
+		jdbcTemplate.update("UPDATE posts p SET comment_count = "
+				+ "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)");
+		jdbcTemplate.execute("ANALYZE");
+
+		log.info("压测数据初始化完成：{} 用户，{} 文章，{} 评论（{} 回复），耗时 {} s",
+				userCount, postCount, comments, replies, (System.nanoTime() - started) / 1_000_000_000);
+		return new Dataset(userIds[0], userIds[1], postIds[0], postIds[1], topLevelIds[0], topLevelIds[1]);
+	}
+
+	private long[] idRange(String table) {
+		return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM " + table,
+				(rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+	}
+
+	private static void inBatches(long rows, RangeAction action) {
+		for (long from = 1; from <= rows; from += BATCH_ROWS) {
+			action.apply(from, Math.min(rows, from + BATCH_ROWS - 1));
+		}
+	}
+
+	@FunctionalInterface
+	private interface RangeAction {
+		void apply(long from, long to);
+	}
+
+	/**
+	 * 初始化后的 id 区间（闭区间）
+	 */
+	static final class Dataset {
+		final long firstUserId;
+		final long lastUserId;
+		final long firstPostId;
+		final long lastPostId;
+		final long firstTopLevelCommentId;
+		final long lastTopLevelCommentId;
+
+		Dataset(long firstUserId, long lastUserId, long firstPostId, long lastPostId,
+				long firstTopLevelCommentId, long lastTopLevelCommentId) {
+			this.firstUserId = firstUserId;
+			this.lastUserId = lastUserId;
+			this.firstPostId = firstPostId;
+			this.lastPostId = lastPostId;
+			this.firstTopLevelCommentId = firstTopLevelCommentId;
+			this.lastTopLevelCommentId = lastTopLevelCommentId;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.xuebao.demo.config;
+
+import com.xuebao.demo.util.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 数据库并发限制（blog.db.concurrency-limit.enabled=true 时启用，virtual-threads 配置中默认打开）
+ * 用 ConcurrencyLimitedDataSource 包装容器中的 DataSource，许可数默认等于 Hikari 连接池大小
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    int permits = environment.getProperty("blog.db.concurrency-limit.permits", Integer.class, poolSize);
+                    Duration timeout = environment.getProperty("blog.db.concurrency-limit.acquire-timeout",
+                            Duration.class, Duration.ofSeconds(5));
+                    return new ConcurrencyLimitedDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 许可使用情况：blog.db.limiter.available / blog.db.limiter.waiting
+     */
+    @Bean
+    public MeterBinder concurrencyLimitedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("blog.db.limiter.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .tag("max", String.valueOf(limited.getMaxPermits())).register(registry);
+                Gauge.builder("blog.db.limiter.waiting", limited, ConcurrencyLimitedDataSource::getQueueLength)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.xuebao.demo.config;
+
+import com.xuebao.demo.util.HtmlLinkResourceTransformer;
+import com.xuebao.demo.util.SendfileResourceHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 前端静态资源（demo/frontend，构建时复制到 classpath:/static/ 并生成 .gz/.br 预压缩版本）
+ * css/js：按内容 MD5 生成带版本号的 URL（style-&lt;md5&gt;.css），Cache-Control: max-age=1 年, immutable，
+ *         浏览器支持时直接返回预压缩文件；
+ * html：引用的 css/js 链接在输出时改写为带版本号的 URL，Cache-Control: no-cache + 按内容生成的 ETag，
+ *       重复访问只需一次 304 验证，资源文件全部命中浏览器缓存。
+ * blog.frontend.location 指向磁盘目录（file:）时，超过阈值的大文件通过 sendfile 零拷贝输出。
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.frontend.enabled", havingValue = "true", matchIfMissing = true)
+public class FrontendResourceConfig implements WebMvcConfigurer {
+
+    // 带版本号长期缓存的资源目录
+    private static final String[] ASSET_DIRECTORIES = {"css", "js"};
+
+    private static final CacheControl VERSIONED_ASSET_CACHE =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final String location;
+
+    public FrontendResourceConfig(@Value("${blog.frontend.location:classpath:/static/}") String location) {
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : ASSET_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations(location + directory + "/")
+                    .setCacheControl(VERSIONED_ASSET_CACHE)
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+
+        registry.addResourceHandler("/*.html")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.noCache())
+                .setEtagGenerator(FrontendResourceConfig::contentETag)
+                .resourceChain(true)
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        registry.addViewController("/").setViewName("forward:/index.html");
+    }
+
+    /**
+     * 给静态资源处理器换上支持 sendfile 的消息转换器（ResourceHandlerRegistration 未提供该配置项）
+     */
+    @Bean
+    public static BeanPostProcessor sendfileResourceHandlerPostProcessor(Environment environment) {
+        long minSize = environment.getProperty("blog.frontend.sendfile-min-size", DataSize.class,
+                DataSize.ofKilobytes(48)).toBytes();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleUrlHandlerMapping mapping && "resourceHandlerMapping".equals(beanName)) {
+                    mapping.getHandlerMap().values().forEach(handler -> {
+                        if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                            resourceHandler.setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter(minSize));
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    // HTML 改写后的内容按 MD5 生成强 ETag（改写结果由资源链缓存，同一内容得到同一 ETag）
+    private static String contentETag(Resource resource) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(resource.getContentAsByteArray()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
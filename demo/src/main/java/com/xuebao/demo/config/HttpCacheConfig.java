@@ -0,0 +1,24 @@
+package com.xuebao.demo.config;
+
+import com.xuebao.demo.filter.ListingEtagFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 列表接口的内容 ETag
+ * 文章详情和文章评论列表在控制器中按版本查询生成 ETag（见 HttpCacheUtil），过滤器不会覆盖已有的 ETag；
+ * 其余列表没有廉价的版本来源，由 ListingEtagFilter 按响应体（去掉 timestamp）MD5 生成弱 ETag，未变化时返回 304 空响应。
+ */
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ListingEtagFilter> listingEtagFilter() {
+        FilterRegistrationBean<ListingEtagFilter> registration =
+                new FilterRegistrationBean<>(new ListingEtagFilter());
+        // 不包含流式导出的 /api/posts/all：过滤器要缓冲整个响应体才能计算 ETag
+        registration.addUrlPatterns("/api/posts", "/api/posts/status/*", "/api/posts/filter", "/api/posts/trending", "/api/comments/*");
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.xuebao.demo.config;
+
+import com.xuebao.demo.service.UserPrincipalCache;
+import com.xuebao.demo.service.cache.CommentAuthorCache;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置：@Timed 切面（服务层 blog.service、计数器批量写回 blog.repository）与缓存命中指标
+ * 控制器（http.server.requests）、Spring Data 仓库（spring.data.repository.invocations）和 Hikari 连接池由 actuator 自动采集
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(PostDetailCache postDetailCache, UserPrincipalCache userPrincipalCache,
+                                    CommentAuthorCache commentAuthorCache) {
+        return registry -> {
+            FunctionCounter.builder("blog.cache.hits", postDetailCache, cache -> cache.getStats().getHitCount())
+                    .tag("cache", "post-detail").register(registry);
+            FunctionCounter.builder("blog.cache.misses", postDetailCache, cache -> cache.getStats().getMissCount())
+                    .tag("cache", "post-detail").register(registry);
+            Gauge.builder("blog.cache.hit.ratio", postDetailCache, cache -> cache.getStats().getHitRate())
+                    .tag("cache", "post-detail").register(registry);
+            Gauge.builder("blog.cache.size", postDetailCache, cache -> cache.getStats().getEstimatedSize())
+                    .tag("cache", "post-detail").register(registry);
+            Gauge.builder("blog.cache.weight", postDetailCache, cache -> cache.getStats().getWeightedSize())
+                    .tag("cache", "post-detail").baseUnit("bytes").register(registry);
+
+            // 用户详情缓存：命中 = 缓存命中 + 信任令牌声明（都没有查库）
+            FunctionCounter.builder("blog.cache.hits", userPrincipalCache, cache -> cache.getStats().getAvoidedLookups())
+                    .tag("cache", "user-principal").register(registry);
+            FunctionCounter.builder("blog.cache.misses", userPrincipalCache, cache -> cache.getStats().getDatabaseLookups())
+                    .tag("cache", "user-principal").register(registry);
+            Gauge.builder("blog.cache.hit.ratio", userPrincipalCache, MetricsConfig::principalHitRatio)
+                    .tag("cache", "user-principal").register(registry);
+            Gauge.builder("blog.cache.size", userPrincipalCache, cache -> cache.getStats().getSize())
+                    .tag("cache", "user-principal").register(registry);
+
+            // 评论作者缓存：按作者 id 计数
+            FunctionCounter.builder("blog.cache.hits", commentAuthorCache, cache -> cache.getStats().getHitCount())
+                    .tag("cache", "comment-author").register(registry);
+            FunctionCounter.builder("blog.cache.misses", commentAuthorCache, cache -> cache.getStats().getMissCount())
+                    .tag("cache", "comment-author").register(registry);
+            Gauge.builder("blog.cache.hit.ratio", commentAuthorCache, cache -> cache.getStats().getHitRate())
+                    .tag("cache", "comment-author").register(registry);
+            Gauge.builder("blog.cache.size", commentAuthorCache, cache -> cache.getStats().getEstimatedSize())
+                    .tag("cache", "comment-author").register(registry);
+        };
+    }
+
+    private static double principalHitRatio(UserPrincipalCache cache) {
+        UserPrincipalCache.Stats stats = cache.getStats();
+        long total = stats.getAvoidedLookups() + stats.getDatabaseLookups();
+        return total == 0 ? 1.0 : (double) stats.getAvoidedLookups() / total;
+    }
+}
@@ -0,0 +1,12 @@
+package com.xuebao.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 启用定时任务（计数器批量写回等）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -18,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -78,14 +79,28 @@ public class SecurityConfig {
                                 "/api/debug/**"
                         ).permitAll()
 
+                        // 监控：只有健康检查公开；Prometheus 指标（含接口路径、连接池等内部信息）与性能摘要仅管理员
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAnyRole("ADMIN", "SUPER_ADMIN")
+                        .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
+
                         // POST请求需要认证
                         .requestMatchers(HttpMethod.POST, "/api/posts/**").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/comments/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/posts/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/posts/**").authenticated()
+                        .requestMatchers(HttpMethod.DELETE, "/api/comments/**").authenticated()
+                        // 点赞状态查询按当前用户返回，需要登录
+                        .requestMatchers("/api/likes/**").authenticated()
+                        // 关注与关注动态需要登录
+                        .requestMatchers("/api/users/*/follow", "/api/feed").authenticated()
                         // 其他所有请求都公开（根据需求调整）
                         .anyRequest().permitAll()
                 )
+                // 未登录访问需要认证的接口返回 401（默认为 403）
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
                 .addFilterBefore(jsonUsernamePasswordAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -127,14 +142,18 @@ public class SecurityConfig {
                 "Origin",
                 "Referer",
                 "User-Agent",
-                "Cache-Control"
+                "Cache-Control",
+                "If-None-Match",
+                "If-Modified-Since"
         ));
 
         // 4. 暴露更多响应头
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Disposition",  // 文件下载需要
-                "X-Total-Count"        // 分页数据总数
+                "X-Total-Count",       // 分页数据总数
+                "ETag",                // 条件请求验证
+                "Last-Modified"
         ));
 
         // 5. 开发环境优化配置
@@ -0,0 +1,56 @@
+package com.xuebao.demo.config;
+
+import com.xuebao.demo.filter.SqlBudget;
+import com.xuebao.demo.util.SqlRecordingDataSource;
+import com.xuebao.demo.util.SqlRequestContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * 每请求 SQL 预算（blog.sql.budget.enabled，默认开启）
+ * 用 SqlRecordingDataSource 包装 DataSource 记录语句；拦截器把控制器方法上的 @SqlBudget 写入当前请求的统计上下文
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlRecordingDataSource)) {
+                    return new SqlRecordingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                SqlRequestContext context = SqlRequestContext.current();
+                if (context != null && handler instanceof HandlerMethod handlerMethod) {
+                    SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+                    if (budget != null) {
+                        context.setBudget(budget.maxStatements(), budget.maxTimeMillis());
+                    }
+                }
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.service.PerformanceSummaryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 性能摘要（仅管理员）：接口/服务/仓库耗时、JWT 过滤器、连接池和缓存命中率
+ * 完整指标以 Prometheus 格式暴露在 /actuator/prometheus（同样仅管理员，抓取时带管理员令牌）
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminPerfController {
+
+    private final PerformanceSummaryService performanceSummaryService;
+
+    public AdminPerfController(PerformanceSummaryService performanceSummaryService) {
+        this.performanceSummaryService = performanceSummaryService;
+    }
+
+    @GetMapping("/perf")
+    public ResponseEntity<ResponseWrapper<Map<String, Object>>> getPerformanceSummary() {
+        try {
+            return ResponseEntity.ok(ResponseWrapper.success("获取成功", performanceSummaryService.summary()));
+        } catch (Exception e) {
+            ResponseWrapper<Map<String, Object>> response = ResponseWrapper.error(500, "获取性能摘要失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.dto.response.UserProfileDto;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.Role;
+import com.xuebao.demo.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 用户管理（仅管理员）：修改角色、启用/禁用账户
+ * 变更提交后失效 JWT 过滤器的用户详情缓存，下一次请求即按新状态认证；
+ * principal-source=claims 时令牌中的声明在过期前仍然有效
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+
+    private final UserService userService;
+
+    public AdminUserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * 修改角色，例如 PUT /api/admin/users/1/role?role=EDITOR
+     */
+    @PutMapping("/{id}/role")
+    public ResponseEntity<ResponseWrapper<UserProfileDto>> changeRole(
+            @PathVariable Long id,
+            @RequestParam String role) {
+        try {
+            User user = userService.changeRole(id, Role.fromName(role));
+            return ResponseEntity.ok(ResponseWrapper.success("角色已更新", new UserProfileDto(user)));
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<UserProfileDto> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
+        } catch (Exception e) {
+            ResponseWrapper<UserProfileDto> response = ResponseWrapper.error(500, "修改角色失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 启用/禁用账户，例如 PUT /api/admin/users/1/enabled?enabled=false
+     */
+    @PutMapping("/{id}/enabled")
+    public ResponseEntity<ResponseWrapper<UserProfileDto>> setEnabled(
+            @PathVariable Long id,
+            @RequestParam boolean enabled) {
+        try {
+            User user = userService.setEnabled(id, enabled);
+            return ResponseEntity.ok(ResponseWrapper.success(enabled ? "账户已启用" : "账户已禁用", new UserProfileDto(user)));
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<UserProfileDto> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<UserProfileDto> response = ResponseWrapper.error(500, "修改账户状态失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
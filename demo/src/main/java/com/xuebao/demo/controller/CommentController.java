@@ -2,45 +2,54 @@ package com.xuebao.demo.controller;
 
 import com.xuebao.demo.dto.CommentDTO;
 import com.xuebao.demo.dto.request.UpdateCommentRequest;
+import com.xuebao.demo.dto.response.CommentTree;
+import com.xuebao.demo.dto.response.CursorPage;
+import com.xuebao.demo.dto.response.LikeStatus;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.dto.response.ResponseWrapper;
 import com.xuebao.demo.entity.Comment;
-import com.xuebao.demo.entity.User;
+import com.xuebao.demo.filter.SqlBudget;
 import com.xuebao.demo.service.CommentService;
-import com.xuebao.demo.service.UserService;
+import com.xuebao.demo.service.LikeService;
+import com.xuebao.demo.service.UserPrincipal;
+import com.xuebao.demo.util.CursorUtil;
+import com.xuebao.demo.util.HttpCacheUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private CommentService commentService;
 
     @Autowired
-    private UserService userService;
+    private LikeService likeService;
+
+    @Autowired
+    private HttpCacheUtil httpCacheUtil;
 
-    // 创建评论
+    // 创建评论（插入后写入物化路径，多一条 UPDATE）
     @PostMapping
+    @SqlBudget(maxStatements = 7)
     public ResponseEntity<ResponseWrapper<CommentDTO>> createComment(
             @RequestBody Comment comment,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserPrincipal principal) {
 
         try {
-            // 直接获取当前用户信息
-            String username = userDetails.getUsername();
-            User author = userService.findByUsername(username)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "未找到用户: " + username));
-
-            comment.setAuthor(author);
+            // 作者取自认证主体（带用户 id），不再按用户名查库
+            comment.setAuthor(principal.toUserReference());
             Comment savedComment = commentService.createComment(comment);
             CommentDTO commentDTO = CommentDTO.fromEntity(savedComment);
 
@@ -58,6 +67,7 @@ public class CommentController {
 
     // 获取评论详情
     @GetMapping("/{id}")
+    @SqlBudget(maxStatements = 2)
     public ResponseEntity<ResponseWrapper<CommentDTO>> getComment(@PathVariable Long id) {
         try {
             Comment comment = commentService.getCommentById(id);
@@ -76,56 +86,147 @@ public class CommentController {
         }
     }
 
-    // 获取文章评论列表
+    // 获取文章评论列表（顶级评论）
+    // mode=cursor 或携带 after 参数时使用游标分页（每页 size 条，返回 nextCursor），否则返回全部顶级评论
+    // 响应带该文章评论整体版本的 ETag，条件请求只执行一条聚合查询，未变化时返回 304
+    // 作者摘要批量解析，作者缓存未命中时多一条 IN 查询
     @GetMapping("/post/{postId}")
-    public ResponseEntity<ResponseWrapper<List<CommentDTO>>> getCommentsByPost(@PathVariable Long postId) {
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<?>> getCommentsByPost(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "list") String mode,
+            WebRequest webRequest) {
         try {
+            // 先取版本再查内容：期间有并发修改时 ETag 只会比内容旧，下次验证必然失败重新下载，不会把新内容标成旧版本
+            ResourceVersion version = commentService.getCommentsVersion(postId);
+            ResponseEntity<ResponseWrapper<?>> notModified = httpCacheUtil.checkNotModified(webRequest, version);
+            if (notModified != null) {
+                return notModified;
+            }
+
+            if (isCursorMode(mode, after)) {
+                Slice<CommentDTO> slice = commentService.getTopLevelCommentsAfter(postId, after, pageSize(size));
+                return httpCacheUtil.ok(version).body(ResponseWrapper.success("获取成功", CursorPage.of(slice, CommentController::cursorOf)));
+            }
+
             List<Comment> comments = commentService.getCommentsByPostId(postId);
-            List<CommentDTO> commentDTOs = comments.stream()
-                    .map(CommentDTO::fromEntity)
-                    .collect(Collectors.toList());
+            List<CommentDTO> commentDTOs = commentService.toDTOs(comments);
 
             ResponseWrapper<List<CommentDTO>> response = ResponseWrapper.success("获取成功", commentDTOs);
-            return ResponseEntity.ok(response);
+            return httpCacheUtil.ok(version).body(response);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
             ResponseWrapper<List<CommentDTO>> response = ResponseWrapper.error(500, "获取评论列表失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
-    // 获取评论的回复
+    // 获取文章的评论树（一次请求返回全部层级，maxDepth 限制层数，limit 限制每层条数）
+    // 评论树和回复列表每次都要验证（新回复需要立即可见），由 ListingEtagFilter 的 ETag 节省传输
+    @GetMapping("/post/{postId}/tree")
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<CommentTree>> getCommentTree(
+            @PathVariable Long postId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CommentTree tree = commentService.getCommentTree(postId, maxDepth, limit);
+            ResponseWrapper<CommentTree> response = ResponseWrapper.success("获取成功", tree);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.detail()).body(response);
+
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<CommentTree> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<CommentTree> response = ResponseWrapper.error(500, "获取评论树失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // 获取以某条评论为根的讨论串（按物化路径一次范围查询，maxDepth 为相对该评论的层数）
+    @GetMapping("/{commentId}/thread")
+    @SqlBudget(maxStatements = 3)
+    public ResponseEntity<ResponseWrapper<CommentTree>> getCommentThread(
+            @PathVariable Long commentId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            CommentTree thread = commentService.getCommentThread(commentId, maxDepth, limit);
+            ResponseWrapper<CommentTree> response = ResponseWrapper.success("获取成功", thread);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.detail()).body(response);
+
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<CommentTree> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<CommentTree> response = ResponseWrapper.error(500, "获取讨论串失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // 获取评论的回复（mode=cursor 或携带 after 参数时使用游标分页）
     @GetMapping("/{commentId}/replies")
-    public ResponseEntity<ResponseWrapper<List<CommentDTO>>> getCommentReplies(@PathVariable Long commentId) {
+    @SqlBudget(maxStatements = 3)
+    public ResponseEntity<ResponseWrapper<?>> getCommentReplies(
+            @PathVariable Long commentId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "list") String mode) {
         try {
+            if (isCursorMode(mode, after)) {
+                Slice<CommentDTO> slice = commentService.getRepliesAfter(commentId, after, pageSize(size));
+                return ResponseEntity.ok().cacheControl(httpCacheUtil.detail()).body(ResponseWrapper.success("获取成功", CursorPage.of(slice, CommentController::cursorOf)));
+            }
+
             List<Comment> replies = commentService.getRepliesByCommentId(commentId);
-            List<CommentDTO> replyDTOs = replies.stream()
-                    .map(CommentDTO::fromEntity)
-                    .collect(Collectors.toList());
+            List<CommentDTO> replyDTOs = commentService.toDTOs(replies);
 
             ResponseWrapper<List<CommentDTO>> response = ResponseWrapper.success("获取成功", replyDTOs);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.detail()).body(response);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
             ResponseWrapper<List<CommentDTO>> response = ResponseWrapper.error(500, "获取评论回复失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
+    // 获取用户的评论（游标分页，最新在前）
+    @GetMapping("/user/{userId}")
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<CursorPage<CommentDTO>>> getCommentsByUser(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after) {
+        try {
+            Slice<CommentDTO> slice = commentService.getCommentsByUserAfter(userId, after, pageSize(size));
+            ResponseWrapper<CursorPage<CommentDTO>> response =
+                    ResponseWrapper.success("获取成功", CursorPage.of(slice, CommentController::cursorOf));
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
+        } catch (Exception e) {
+            ResponseWrapper<CursorPage<CommentDTO>> response = ResponseWrapper.error(500, "获取用户评论失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     // 更新评论内容
     @PutMapping("/{id}")
     public ResponseEntity<ResponseWrapper<CommentDTO>> updateComment(
             @PathVariable Long id,
             @RequestBody UpdateCommentRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {  // 改用userDetails
+            @AuthenticationPrincipal UserPrincipal principal) {
 
         try {
-            // 获取当前用户
-            String username = userDetails.getUsername();
-            User currentUser = userService.findByUsername(username)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在"));
-
-            Long currentUserId = currentUser.getId();
+            // 当前用户 id 取自认证主体
+            Long currentUserId = principal.getId();
             Comment updatedComment = commentService.updateCommentContent(id, request.getContent(), currentUserId);
             CommentDTO commentDTO = CommentDTO.fromEntity(updatedComment);
 
@@ -145,15 +246,11 @@ public class CommentController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ResponseWrapper<Void>> deleteComment(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {  // 改用userDetails
+            @AuthenticationPrincipal UserPrincipal principal) {
 
         try {
-            // 获取当前用户
-            String username = userDetails.getUsername();
-            User currentUser = userService.findByUsername(username)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在"));
-
-            Long currentUserId = currentUser.getId();
+            // 当前用户 id 取自认证主体
+            Long currentUserId = principal.getId();
             commentService.deleteComment(id, currentUserId);
 
             ResponseWrapper<Void> response = ResponseWrapper.success("评论删除成功", null);
@@ -167,4 +264,59 @@ public class CommentController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 点赞评论（幂等，重复点赞返回 changed=false）
+     */
+    @PostMapping("/{id}/like")
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<LikeStatus>> likeComment(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            LikeStatus status = likeService.likeComment(principal.getId(), id);
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.success("点赞成功", status);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(500, "点赞失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 取消点赞评论（幂等，未点赞时返回 changed=false）
+     */
+    @DeleteMapping("/{id}/like")
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<LikeStatus>> unlikeComment(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            LikeStatus status = likeService.unlikeComment(principal.getId(), id);
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.success("已取消点赞", status);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(500, "取消点赞失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private static boolean isCursorMode(String mode, String after) {
+        return "cursor".equalsIgnoreCase(mode) || after != null;
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+    }
+
+    // 游标取当前页最后一条评论的 (createdAt, id)
+    private static String cursorOf(CommentDTO comment) {
+        return CursorUtil.encode(comment.getCreatedAt(), comment.getId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.dto.response.CursorPage;
+import com.xuebao.demo.dto.response.FollowStatus;
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.filter.SqlBudget;
+import com.xuebao.demo.service.FollowService;
+import com.xuebao.demo.service.UserPrincipal;
+import com.xuebao.demo.service.feed.FeedService;
+import com.xuebao.demo.util.CursorUtil;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.BiFunction;
+
+/**
+ * 关注/取消关注，以及当前用户的关注动态
+ */
+@RestController
+@RequestMapping("/api")
+public class FollowController {
+
+    private final FollowService followService;
+    private final FeedService feedService;
+    public FollowController(FollowService followService, FeedService feedService) {
+        this.followService = followService;
+        this.feedService = feedService;
+    }
+
+    /**
+     * 关注用户（幂等，重复关注返回 changed=false）
+     */
+    @PostMapping("/users/{id}/follow")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<ResponseWrapper<FollowStatus>> follow(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return change(id, principal, followService::follow, "关注成功", "关注失败");
+    }
+
+    /**
+     * 取消关注（幂等，未关注时返回 changed=false）
+     */
+    @DeleteMapping("/users/{id}/follow")
+    @SqlBudget(maxStatements = 5)
+    public ResponseEntity<ResponseWrapper<FollowStatus>> unfollow(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return change(id, principal, followService::unfollow, "已取消关注", "取消关注失败");
+    }
+
+    /**
+     * 关注动态（游标分页，按发布时间倒序）
+     * 一条按用户 id 的区间查询；关注了大 V 时再加一条读时拉取
+     */
+    @GetMapping("/feed")
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<CursorPage<PostSummary>>> getFeed(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            Slice<PostSummary> feed = feedService.getFeed(principal.getId(), after, size);
+            return ResponseEntity.ok(ResponseWrapper.success("获取成功", CursorPage.of(feed, FollowController::cursorOf)));
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<CursorPage<PostSummary>> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
+        } catch (Exception e) {
+            ResponseWrapper<CursorPage<PostSummary>> response = ResponseWrapper.error(500, "获取关注动态失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private ResponseEntity<ResponseWrapper<FollowStatus>> change(
+            Long followeeId, UserPrincipal principal,
+            BiFunction<Long, Long, FollowStatus> action, String successMessage, String failureMessage) {
+        try {
+            FollowStatus status = action.apply(principal.getId(), followeeId);
+            return ResponseEntity.ok(ResponseWrapper.success(successMessage, status));
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<FollowStatus> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
+        } catch (Exception e) {
+            ResponseWrapper<FollowStatus> response = ResponseWrapper.error(500, failureMessage + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private static String cursorOf(PostSummary post) {
+        return CursorUtil.encode(post.getCreatedAt(), post.getId());
+    }
+}
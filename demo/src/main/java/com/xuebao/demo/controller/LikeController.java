@@ -0,0 +1,66 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.service.LikeService;
+import com.xuebao.demo.service.UserPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * 当前用户的点赞状态批量查询（列表页渲染"是否已点赞"用，一次请求一条 SQL）
+ */
+@RestController
+@RequestMapping("/api/likes")
+public class LikeController {
+
+    private final LikeService likeService;
+    public LikeController(LikeService likeService) {
+        this.likeService = likeService;
+    }
+
+    /**
+     * 批量查询文章点赞状态，例如 GET /api/likes/posts?ids=1,2,3
+     */
+    @GetMapping("/posts")
+    public ResponseEntity<ResponseWrapper<Map<Long, Boolean>>> getPostLikeStates(
+            @RequestParam List<Long> ids,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return lookup(ids, principal, likeService::getPostLikeStates);
+    }
+
+    /**
+     * 批量查询评论点赞状态，例如 GET /api/likes/comments?ids=1,2,3
+     */
+    @GetMapping("/comments")
+    public ResponseEntity<ResponseWrapper<Map<Long, Boolean>>> getCommentLikeStates(
+            @RequestParam List<Long> ids,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return lookup(ids, principal, likeService::getCommentLikeStates);
+    }
+
+    private ResponseEntity<ResponseWrapper<Map<Long, Boolean>>> lookup(
+            List<Long> ids, UserPrincipal principal,
+            BiFunction<Long, List<Long>, Map<Long, Boolean>> query) {
+        try {
+            Map<Long, Boolean> states = query.apply(principal.getId(), ids);
+            ResponseWrapper<Map<Long, Boolean>> response = ResponseWrapper.success("获取成功", states);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<Map<Long, Boolean>> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (IllegalArgumentException e) {
+            ResponseWrapper<Map<Long, Boolean>> response = ResponseWrapper.error(400, e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            ResponseWrapper<Map<Long, Boolean>> response = ResponseWrapper.error(500, "获取点赞状态失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
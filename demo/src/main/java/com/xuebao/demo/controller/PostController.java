@@ -1,40 +1,73 @@
 package com.xuebao.demo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xuebao.demo.dto.request.SearchRequest;
+import com.xuebao.demo.dto.response.CursorPage;
+import com.xuebao.demo.dto.response.LikeStatus;
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.dto.response.PostSummary;
 import com.xuebao.demo.dto.response.MessageResponse;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.dto.response.ResponseWrapper;
+import com.xuebao.demo.dto.response.TrendingPost;
 import com.xuebao.demo.entity.Post;
-import com.xuebao.demo.entity.User;
 import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.filter.SqlBudget;
+import com.xuebao.demo.service.LikeService;
 import com.xuebao.demo.service.PostService;
-import com.xuebao.demo.service.UserService;
+import com.xuebao.demo.service.UserPrincipal;
+import com.xuebao.demo.service.ViewCountService;
+import com.xuebao.demo.service.trending.TrendingService;
+import com.xuebao.demo.util.CursorUtil;
+import com.xuebao.demo.util.HttpCacheUtil;
 import com.xuebao.demo.util.JwtUtil;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/api/posts", produces = "application/json;charset=UTF-8")
 public class PostController {
+    // 游标分页单页最大条数
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson;charset=UTF-8";
+
     private final PostService postService;
-    private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final ViewCountService viewCountService;
+    private final LikeService likeService;
+    private final TrendingService trendingService;
+    private final HttpCacheUtil httpCacheUtil;
+    private final ObjectMapper objectMapper;
 
-    public PostController(PostService postService, UserService userService, JwtUtil jwtUtil) {
+    public PostController(PostService postService, JwtUtil jwtUtil,
+                          ViewCountService viewCountService, LikeService likeService,
+                          TrendingService trendingService, HttpCacheUtil httpCacheUtil, ObjectMapper objectMapper) {
         this.postService = postService;
-        this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.viewCountService = viewCountService;
+        this.likeService = likeService;
+        this.trendingService = trendingService;
+        this.httpCacheUtil = httpCacheUtil;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -43,13 +76,10 @@ public class PostController {
     @PostMapping
     public ResponseEntity<ResponseWrapper<Post>> createPost(
             @Valid @RequestBody Post post,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         try {
-            String username = userDetails.getUsername();
-            User author = userService.findByUsername(username)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "用户不存在: " + username));
-
-            post.setAuthor(author);
+            // 作者取自认证主体（带用户 id），不再按用户名查库
+            post.setAuthor(principal.toUserReference());
             post.setCreatedAt(LocalDateTime.now());
 
             Post savedPost = postService.save(post);
@@ -78,30 +108,58 @@ public class PostController {
     }
 
     /**
-     * 获取所有文章
+     * 导出所有文章（摘要，不含正文）
+     * 流式输出：边从数据库分批读取边写出，内存占用与文章总数无关；
+     * 默认仍是 ResponseWrapper 结构的 JSON，format=ndjson 时每行一篇文章摘要（不带外层包装）。
+     * 查询在 MVC 异步线程中执行，不计入请求的 SQL 预算
      */
-    @GetMapping("/all")
-    public ResponseEntity<ResponseWrapper<List<Post>>> getAllPosts() {
-        try {
-            List<Post> posts = postService.getAllPosts();
-            ResponseWrapper<List<Post>> response = ResponseWrapper.success("获取成功", posts);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            ResponseWrapper<List<Post>> response = ResponseWrapper.error(500, "获取文章列表失败: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+    @GetMapping(value = "/all", produces = {"application/json;charset=UTF-8", NDJSON_CONTENT_TYPE})
+    public ResponseEntity<StreamingResponseBody> getAllPosts(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = outputStream -> postService.streamAllPosts(summaries -> {
+            try {
+                if (ndjson) {
+                    Iterator<PostSummary> iterator = summaries.iterator();
+                    while (iterator.hasNext()) {
+                        outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                        outputStream.write('\n');
+                    }
+                } else {
+                    // Jackson 按 Iterator 逐个序列化 data 数组元素，生成器缓冲区写满即输出
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+                    objectMapper.writeValue(generator, ResponseWrapper.success("获取成功", summaries.iterator()));
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ndjson ? NDJSON_CONTENT_TYPE : "application/json;charset=UTF-8"))
+                .cacheControl(httpCacheUtil.listing())
+                .body(body);
     }
 
     /**
      * 获取文章详情
+     * 响应带强 ETag / Last-Modified；条件请求只比对版本，未变化时返回 304
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseWrapper<Post>> getPost(@PathVariable Long id) {
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<Post>> getPost(@PathVariable Long id, WebRequest webRequest) {
         try {
+            ResponseEntity<ResponseWrapper<Post>> notModified =
+                    httpCacheUtil.checkNotModified(webRequest, () -> postService.getPostVersion(id));
+            // 浏览量只在内存中累加，由 ViewCountService 定时批量写回；304 同样算一次浏览
+            if (notModified != null) {
+                viewCountService.recordView(id);
+                return notModified;
+            }
             Post post = postService.getPostById(id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "文章不存在"));
+            viewCountService.recordView(id);
             ResponseWrapper<Post> response = ResponseWrapper.success("获取成功", post);
-            return ResponseEntity.ok(response);
+            return httpCacheUtil.ok(ResourceVersion.of(post)).body(response);
         } catch (ResponseStatusException e) {
             ResponseWrapper<Post> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
             return ResponseEntity.status(e.getStatusCode()).body(response);
@@ -129,42 +187,98 @@ public class PostController {
     }
 
     /**
-     * 搜索文章
+     * 点赞文章（幂等，重复点赞返回 changed=false）
+     */
+    @PostMapping("/{id}/like")
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<LikeStatus>> likePost(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            LikeStatus status = likeService.likePost(principal.getId(), id);
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.success("点赞成功", status);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(500, "点赞失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 取消点赞文章（幂等，未点赞时返回 changed=false）
+     */
+    @DeleteMapping("/{id}/like")
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<LikeStatus>> unlikePost(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            LikeStatus status = likeService.unlikePost(principal.getId(), id);
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.success("已取消点赞", status);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(e.getStatusCode().value(), e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
+        } catch (Exception e) {
+            ResponseWrapper<LikeStatus> response = ResponseWrapper.error(500, "取消点赞失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 搜索文章（全文检索，按相关度排序，分页并附带高亮片段）
      */
     @PostMapping("/search")
-    public ResponseEntity<ResponseWrapper<List<Post>>> searchPosts(@Valid @RequestBody SearchRequest request) {
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ResponseWrapper<Page<PostSearchHit>>> searchPosts(@Valid @RequestBody SearchRequest request) {
         try {
             if (request.getKeyword() == null || request.getKeyword().isBlank()) {
-                ResponseWrapper<List<Post>> response = ResponseWrapper.error(400, "搜索关键词不能为空");
+                ResponseWrapper<Page<PostSearchHit>> response = ResponseWrapper.error(400, "搜索关键词不能为空");
                 return ResponseEntity.badRequest().body(response);
             }
 
-            List<Post> results = postService.comprehensiveSearch(request.getKeyword().trim());
+            int size = Math.min(Math.max(request.getSize(), 1), 100);
+            Pageable pageable = PageRequest.of(Math.max(request.getPage(), 0), size);
+            Page<PostSearchHit> results = postService.comprehensiveSearch(request.getKeyword().trim(), pageable);
 
             if (results.isEmpty()) {
-                ResponseWrapper<List<Post>> response = ResponseWrapper.success("未找到相关文章", results);
+                ResponseWrapper<Page<PostSearchHit>> response = ResponseWrapper.success("未找到相关文章", results);
                 return ResponseEntity.ok(response);
             } else {
-                ResponseWrapper<List<Post>> response = ResponseWrapper.success("搜索成功", results);
+                ResponseWrapper<Page<PostSearchHit>> response = ResponseWrapper.success("搜索成功", results);
                 return ResponseEntity.ok(response);
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
-            ResponseWrapper<List<Post>> response = ResponseWrapper.error(500, "搜索失败: " + e.getMessage());
+            ResponseWrapper<Page<PostSearchHit>> response = ResponseWrapper.error(500, "搜索失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
     /**
      * 分页获取文章
+     * mode=cursor 或携带 after 参数时使用游标分页（无 COUNT 查询），否则为传统页码分页
      */
     @GetMapping
-    public ResponseEntity<ResponseWrapper<Page<Post>>> getPostsPaged(
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<?>> getPostsPaged(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String keyword) {
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "offset") String mode) {
         try {
+            if (isCursorMode(mode, after)) {
+                Slice<PostSummary> slice = postService.getPostsWithCursor(keyword, after, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+                return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(ResponseWrapper.success("获取成功", CursorPage.of(slice, PostController::cursorOf)));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-            Page<Post> result;
+            Page<PostSummary> result;
 
             if (keyword != null && !keyword.trim().isEmpty()) {
                 result = postService.searchPostsWithPagination(keyword.trim(), pageable);
@@ -172,10 +286,32 @@ public class PostController {
                 result = postService.getAllPostsPaged(pageable);
             }
 
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.success("获取成功", result);
-            return ResponseEntity.ok(response);
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.success("获取成功", result);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
+        } catch (Exception e) {
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.error(500, "分页查询失败: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * 热门文章榜（按时间衰减的浏览/点赞/评论热度排序）
+     * window 为统计窗口（默认 1h、24h、7d，见 blog.trending.windows），size 最多 50；只读内存，不查库
+     */
+    @GetMapping("/trending")
+    @SqlBudget(maxStatements = 0)
+    public ResponseEntity<ResponseWrapper<List<TrendingPost>>> getTrendingPosts(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            List<TrendingPost> trending = trendingService.getTrending(window, size);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(ResponseWrapper.success("获取成功", trending));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.error(500, "分页查询失败: " + e.getMessage());
+            ResponseWrapper<List<TrendingPost>> response = ResponseWrapper.error(500, "获取热门文章失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -184,19 +320,29 @@ public class PostController {
      * 按状态分页查询
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<ResponseWrapper<Page<Post>>> getPostsByStatusPaged(
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<?>> getPostsByStatusPaged(
             @PathVariable PostStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "offset") String mode) {
         try {
             size = Math.min(size, 100);
+            if (isCursorMode(mode, after)) {
+                Slice<PostSummary> slice = postService.getPostsByStatusAfter(status, after, size);
+                return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(ResponseWrapper.success("获取成功", CursorPage.of(slice, PostController::cursorOf)));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-            Page<Post> result = postService.getPostsByStatus(status, pageable);
+            Page<PostSummary> result = postService.getPostsByStatus(status, pageable);
 
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.success("获取成功", result);
-            return ResponseEntity.ok(response);
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.success("获取成功", result);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.error(500, "按状态查询失败: " + e.getMessage());
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.error(500, "按状态查询失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -205,19 +351,39 @@ public class PostController {
      * 条件分页查询
      */
     @GetMapping("/filter")
-    public ResponseEntity<ResponseWrapper<Page<Post>>> filterPostsPaged(
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<ResponseWrapper<?>> filterPostsPaged(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "offset") String mode) {
         try {
+            if (isCursorMode(mode, after)) {
+                Slice<PostSummary> slice = postService.getPostsWithCursor(keyword, after, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+                return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(ResponseWrapper.success("获取成功", CursorPage.of(slice, PostController::cursorOf)));
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-            Page<Post> result = postService.getPostsWithPagination(keyword, pageable);
+            Page<PostSummary> result = postService.getPostsWithPagination(keyword, pageable);
 
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.success("获取成功", result);
-            return ResponseEntity.ok(response);
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.success("获取成功", result);
+            return ResponseEntity.ok().cacheControl(httpCacheUtil.listing()).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseWrapper.error(400, e.getMessage()));
         } catch (Exception e) {
-            ResponseWrapper<Page<Post>> response = ResponseWrapper.error(500, "筛选查询失败: " + e.getMessage());
+            ResponseWrapper<Page<PostSummary>> response = ResponseWrapper.error(500, "筛选查询失败: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // 是否使用游标分页：显式指定 mode=cursor，或携带了 after 游标
+    private static boolean isCursorMode(String mode, String after) {
+        return "cursor".equalsIgnoreCase(mode) || after != null;
+    }
+
+    // 以列表最后一篇文章的 (createdAt, id) 作为下一页游标
+    private static String cursorOf(PostSummary post) {
+        return CursorUtil.encode(post.getCreatedAt(), post.getId());
+    }
+}
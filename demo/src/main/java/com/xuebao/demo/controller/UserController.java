@@ -4,6 +4,7 @@ import com.xuebao.demo.dto.response.ResponseWrapper;
 import com.xuebao.demo.entity.User;
 import com.xuebao.demo.service.UserService;
 import com.xuebao.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,14 +38,15 @@ public class UserController {
 
             String token = authHeader.substring(7);
 
-            // 验证Token
-            if (!jwtUtil.validateToken(token)) {
+            // 验证Token（只解析一次）
+            Claims claims = jwtUtil.parseIfValid(token);
+            if (claims == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(ResponseWrapper.error(401, "令牌无效或已过期"));
             }
 
             // 从Token中提取用户名
-            String username = jwtUtil.extractUsername(token);
+            String username = claims.getSubject();
 
             // 查找用户
             User user = userService.findByUsername(username)
@@ -1,6 +1,8 @@
 package com.xuebao.demo.dto;
 
+import com.xuebao.demo.dto.response.AuthorSummary;
 import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.User;
 import java.time.LocalDateTime;
 
 public class CommentDTO {
@@ -10,8 +12,11 @@ public class CommentDTO {
     private LocalDateTime updatedAt;
     private String authorName;  // 作者名称
     private Long authorId;      // 作者ID
+    private String authorNickname; // 作者昵称
+    private String authorAvatar;   // 作者头像
     private Long postId;        // 文章ID
     private Long parentCommentId;  // 父评论ID
+    private Integer likeCount;     // 点赞数
 
     // Getter和Setter方法
     public Long getId() {
@@ -62,6 +67,22 @@ public class CommentDTO {
         this.authorId = authorId;
     }
 
+    public String getAuthorNickname() {
+        return authorNickname;
+    }
+
+    public void setAuthorNickname(String authorNickname) {
+        this.authorNickname = authorNickname;
+    }
+
+    public String getAuthorAvatar() {
+        return authorAvatar;
+    }
+
+    public void setAuthorAvatar(String authorAvatar) {
+        this.authorAvatar = authorAvatar;
+    }
+
     public Long getPostId() {
         return postId;
     }
@@ -78,17 +99,39 @@ public class CommentDTO {
         this.parentCommentId = parentCommentId;
     }
 
-    // 静态工厂方法
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    // 静态工厂方法（作者已加载的单条评论，如详情、新建、修改）
     public static CommentDTO fromEntity(Comment comment) {
+        User author = comment.getAuthor();
+        return fromEntity(comment, author == null ? null
+                : new AuthorSummary(author.getId(), author.getUsername(), author.getNickname(), author.getAvatarUrl()));
+    }
+
+    // 列表使用：作者摘要由 CommentAuthorCache 批量解析后传入，不访问懒加载的 author
+    // （作者、文章、父评论的 id 直接取自代理对象，不会触发加载）
+    public static CommentDTO fromEntity(Comment comment, AuthorSummary author) {
         CommentDTO dto = new CommentDTO();
         dto.setId(comment.getId());
         dto.setContent(comment.getContent());
         dto.setCreatedAt(comment.getCreatedAt());
         dto.setUpdatedAt(comment.getUpdatedAt());
+        dto.setLikeCount(comment.getLikeCount());
 
         if (comment.getAuthor() != null) {
             dto.setAuthorId(comment.getAuthor().getId());
-            dto.setAuthorName(comment.getAuthor().getUsername());
+        }
+
+        if (author != null) {
+            dto.setAuthorName(author.getUsername());
+            dto.setAuthorNickname(author.getNickname());
+            dto.setAuthorAvatar(author.getAvatarUrl());
         }
 
         if (comment.getPost() != null) {
@@ -101,4 +144,4 @@ public class CommentDTO {
 
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,15 @@ package com.xuebao.demo.dto.request;
 
 public class SearchRequest {
     private String keyword; // 搜索关键词
+    private int page = 0;   // 页码（从0开始）
+    private int size = 10;  // 每页条数
 
     // 无参构造器、Getter 和 Setter 是必需的
     public SearchRequest() {}
     public String getKeyword() { return keyword; }
     public void setKeyword(String keyword) { this.keyword = keyword; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.xuebao.demo.dto.response;
+
+/**
+ * 评论作者摘要（id、用户名、昵称、头像）
+ * 由 JPQL 构造器表达式按 id 批量查出，不加载 User 实体；不可变，可以在缓存和多个响应之间共享
+ */
+public class AuthorSummary {
+    private final Long id;
+    private final String username;
+    private final String nickname;
+    private final String avatarUrl;
+
+    public AuthorSummary(Long id, String username, String nickname, String avatarUrl) {
+        this.id = id;
+        this.username = username;
+        this.nickname = nickname;
+        this.avatarUrl = avatarUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+}
@@ -1,10 +1,7 @@
 package com.xuebao.demo.dto.response;
 
-import com.xuebao.demo.entity.Comment;
-import com.xuebao.demo.entity.User;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class CommentResponse {
     private Long id;
@@ -14,37 +11,27 @@ public class CommentResponse {
     private CommentAuthor author;
     private Long postId;
     private Long parentCommentId;
+    private Integer likeCount;
+    private Integer replyCount;     // 直接回复总数（评论树按层截断时，replies 可能少于该值）
     private List<CommentResponse> replies;
 
-    // 静态工厂方法
-    public static CommentResponse fromEntity(Comment comment) {
-        CommentResponse response = new CommentResponse();
-        response.setId(comment.getId());
-        response.setContent(comment.getContent());
-        response.setCreatedAt(comment.getCreatedAt());
-        response.setUpdatedAt(comment.getUpdatedAt());
-
-        if (comment.getAuthor() != null) {
-            response.setAuthor(CommentAuthor.fromUser(comment.getAuthor()));
-        }
-
-        if (comment.getPost() != null) {
-            response.setPostId(comment.getPost().getId());
-        }
-
-        if (comment.getParentComment() != null) {
-            response.setParentCommentId(comment.getParentComment().getId());
-        }
-
-        // 递归转换回复
-        if (comment.getReplies() != null && !comment.getReplies().isEmpty()) {
-            List<CommentResponse> replyResponses = comment.getReplies().stream()
-                    .map(CommentResponse::fromEntity)
-                    .collect(Collectors.toList());
-            response.setReplies(replyResponses);
-        }
+    public CommentResponse() {
+    }
 
-        return response;
+    // 评论树查询使用的构造函数（JPQL 构造器表达式，一次取出整篇文章的评论行，不加载实体）
+    // 作者只带 id，用户名、昵称、头像由 CommentService 通过 CommentAuthorCache 批量回填
+    public CommentResponse(Long id, String content, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           Long authorId, Long postId, Long parentCommentId, Integer likeCount) {
+        this.id = id;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        CommentAuthor author = new CommentAuthor();
+        author.setId(authorId);
+        this.author = author;
+        this.postId = postId;
+        this.parentCommentId = parentCommentId;
+        this.likeCount = likeCount;
     }
 
     // Getter和Setter方法
@@ -104,6 +91,22 @@ public class CommentResponse {
         this.parentCommentId = parentCommentId;
     }
 
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public Integer getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(Integer replyCount) {
+        this.replyCount = replyCount;
+    }
+
     public List<CommentResponse> getReplies() {
         return replies;
     }
@@ -116,14 +119,15 @@ public class CommentResponse {
     public static class CommentAuthor {
         private Long id;
         private String username;
+        private String nickname;
         private String avatar;
 
-        public static CommentAuthor fromUser(User user) {
+        public static CommentAuthor from(AuthorSummary summary) {
             CommentAuthor author = new CommentAuthor();
-            author.setId(user.getId());
-            author.setUsername(user.getUsername());
-            // 如果有头像字段
-            // author.setAvatar(user.getAvatar());
+            author.setId(summary.getId());
+            author.setUsername(summary.getUsername());
+            author.setNickname(summary.getNickname());
+            author.setAvatar(summary.getAvatarUrl());
             return author;
         }
 
@@ -144,6 +148,14 @@ public class CommentResponse {
             this.username = username;
         }
 
+        public String getNickname() {
+            return nickname;
+        }
+
+        public void setNickname(String nickname) {
+            this.nickname = nickname;
+        }
+
         public String getAvatar() {
             return avatar;
         }
@@ -0,0 +1,56 @@
+package com.xuebao.demo.dto.response;
+
+import java.util.List;
+
+/**
+ * 文章评论树
+ * totalCount / topLevelCount 为截断前的数量，comments 为按深度和每层条数截断后的树
+ */
+public class CommentTree {
+    private Long postId;
+    private int totalCount;
+    private int topLevelCount;
+    private List<CommentResponse> comments;
+
+    public CommentTree() {
+    }
+
+    public CommentTree(Long postId, int totalCount, int topLevelCount, List<CommentResponse> comments) {
+        this.postId = postId;
+        this.totalCount = totalCount;
+        this.topLevelCount = topLevelCount;
+        this.comments = comments;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public int getTopLevelCount() {
+        return topLevelCount;
+    }
+
+    public void setTopLevelCount(int topLevelCount) {
+        this.topLevelCount = topLevelCount;
+    }
+
+    public List<CommentResponse> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<CommentResponse> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,70 @@
+package com.xuebao.demo.dto.response;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页响应
+ * 不包含总数（不执行 COUNT 查询），通过 nextCursor 获取下一页
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // 静态工厂方法：由 Slice 构建，使用最后一条记录生成下一页游标
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, String> cursorExtractor) {
+        List<T> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = cursorExtractor.apply(content.get(content.size() - 1));
+        }
+        return new CursorPage<>(content, slice.getSize(), slice.hasNext(), nextCursor);
+    }
+
+    // Getter和Setter方法
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.xuebao.demo.dto.response;
+
+/**
+ * 关注/取消关注结果
+ * changed 为 false 表示重复请求，状态未发生变化
+ */
+public class FollowStatus {
+    private Long userId;
+    private boolean following;
+    private boolean changed;
+
+    public FollowStatus() {
+    }
+
+    public FollowStatus(Long userId, boolean following, boolean changed) {
+        this.userId = userId;
+        this.following = following;
+        this.changed = changed;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public boolean isFollowing() {
+        return following;
+    }
+
+    public void setFollowing(boolean following) {
+        this.following = following;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+}
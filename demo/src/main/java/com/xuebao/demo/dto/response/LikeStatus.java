@@ -0,0 +1,44 @@
+package com.xuebao.demo.dto.response;
+
+/**
+ * 点赞/取消点赞结果
+ * changed 为 false 表示重复请求，状态未发生变化
+ */
+public class LikeStatus {
+    private Long targetId;
+    private boolean liked;
+    private boolean changed;
+
+    public LikeStatus() {
+    }
+
+    public LikeStatus(Long targetId, boolean liked, boolean changed) {
+        this.targetId = targetId;
+        this.liked = liked;
+        this.changed = changed;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public void setLiked(boolean liked) {
+        this.liked = liked;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+}
@@ -0,0 +1,44 @@
+package com.xuebao.demo.dto.response;
+
+/**
+ * 全文检索结果
+ * 在文章摘要基础上附加相关度得分和高亮片段（命中词以 &lt;em&gt; 标记，其余内容已做 HTML 转义）
+ */
+public class PostSearchHit extends PostSummary {
+    private Double score;
+    private String highlight;
+
+    public PostSearchHit() {
+    }
+
+    public PostSearchHit(PostSummary summary, Double score, String highlight) {
+        setId(summary.getId());
+        setTitle(summary.getTitle());
+        setSummary(summary.getSummary());
+        setAuthor(summary.getAuthor());
+        setViewCount(summary.getViewCount());
+        setLikeCount(summary.getLikeCount());
+        setCommentCount(summary.getCommentCount());
+        setStatus(summary.getStatus());
+        setCreatedAt(summary.getCreatedAt());
+        this.score = score;
+        this.highlight = highlight;
+    }
+
+    // Getter和Setter方法
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public String getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(String highlight) {
+        this.highlight = highlight;
+    }
+}
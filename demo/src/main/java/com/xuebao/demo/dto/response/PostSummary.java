@@ -0,0 +1,158 @@
+package com.xuebao.demo.dto.response;
+
+import com.xuebao.demo.enums.PostStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章列表摘要
+ * 由 PostRepository 中的 JPQL 构造器表达式直接生成，不加载 content 大字段和作者实体
+ */
+public class PostSummary {
+    // 未填写摘要时从正文截取的长度
+    public static final int EXCERPT_LENGTH = 200;
+
+    private Long id;
+    private String title;
+    private String summary;
+    private PostAuthor author;
+    private Integer viewCount;
+    private Integer likeCount;
+    private Integer commentCount;
+    private PostStatus status;
+    private LocalDateTime createdAt;
+
+    public PostSummary() {
+    }
+
+    // JPQL 构造器表达式使用的构造函数，参数顺序需与查询保持一致
+    public PostSummary(Long id, String title, String summary,
+                       Long authorId, String authorUsername, String authorNickname,
+                       Integer viewCount, Integer likeCount, Integer commentCount,
+                       PostStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.summary = summary;
+        if (authorId != null) {
+            this.author = new PostAuthor(authorId, authorUsername, authorNickname);
+        }
+        this.viewCount = viewCount;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public PostAuthor getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(PostAuthor author) {
+        this.author = author;
+    }
+
+    public Integer getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Integer viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public PostStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PostStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // 内部作者类（与前端 post.author.username / nickname 的读取方式保持兼容）
+    public static class PostAuthor {
+        private Long id;
+        private String username;
+        private String nickname;
+
+        public PostAuthor() {
+        }
+
+        public PostAuthor(Long id, String username, String nickname) {
+            this.id = id;
+            this.username = username;
+            this.nickname = nickname;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public void setNickname(String nickname) {
+            this.nickname = nickname;
+        }
+    }
+}
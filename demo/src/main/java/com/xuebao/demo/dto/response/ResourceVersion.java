@@ -0,0 +1,62 @@
+package com.xuebao.demo.dto.response;
+
+import com.xuebao.demo.entity.Post;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * 资源版本（HTTP 条件请求用）：弱 ETag + Last-Modified
+ * 由只查版本列的轻量查询构造，304 判断时不需要加载完整实体；
+ * 与完整响应使用同样的字段计算，同一状态下两条路径得到相同的 ETag。
+ * 版本只覆盖语义内容，响应中的浏览量和 ResponseWrapper 的 timestamp 不参与，响应体并非逐字节相同，
+ * 所以写成弱 ETag（W/"..."）；If-None-Match 按弱比较匹配，304 不受影响。
+ */
+public class ResourceVersion {
+    private final String eTag;
+    private final long lastModified;
+
+    /**
+     * 文章详情版本：id + 更新时间 + 点赞数/评论数
+     * 浏览量是定时批量写回的近似值，不参与版本，否则热门文章的 ETag 每个刷新周期都会变化
+     */
+    public ResourceVersion(Long postId, LocalDateTime updatedAt, Integer likeCount, Integer commentCount) {
+        this("p", postId, updatedAt, Objects.hash(likeCount, commentCount));
+    }
+
+    /**
+     * 文章评论列表版本：最近更新时间 + 评论条数 + 点赞数之和 + 最大评论 id
+     * 覆盖新增、编辑、删除和点赞（回复也计入，任何变化都会让该文章所有评论页重新下载）
+     */
+    public ResourceVersion(Long postId, LocalDateTime lastUpdatedAt, Long count, Long likeSum, Long maxCommentId) {
+        this("c", postId, lastUpdatedAt, Objects.hash(count, likeSum, maxCommentId));
+    }
+
+    private ResourceVersion(String kind, Long id, LocalDateTime updatedAt, int stateHash) {
+        // 数据库时间精度与内存中的 LocalDateTime 不同，统一截断到毫秒
+        this.lastModified = updatedAt == null ? -1
+                : updatedAt.truncatedTo(ChronoUnit.MILLIS).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.eTag = "W/\"" + kind + id + "-" + Long.toHexString(lastModified) + "-" + Integer.toHexString(stateHash) + "\"";
+    }
+
+    /**
+     * 按完整文章实体计算版本，与 PostRepository.findVersionById 的结果一致
+     */
+    public static ResourceVersion of(Post post) {
+        LocalDateTime updatedAt = post.getUpdatedAt() != null ? post.getUpdatedAt() : post.getCreatedAt();
+        return new ResourceVersion(post.getId(), updatedAt, post.getLikeCount(), post.getCommentCount());
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * 最后修改时间（毫秒时间戳），未知时为 -1
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
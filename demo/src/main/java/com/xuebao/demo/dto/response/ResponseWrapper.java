@@ -7,6 +7,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class ResponseWrapper<T> {
+    // DateTimeFormatter 不可变且线程安全，共享一个实例，避免每次响应都解析一遍格式串
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private boolean success;
     private String code;
     private String message;
@@ -15,7 +18,7 @@ public class ResponseWrapper<T> {
     private String path;
 
     public ResponseWrapper() {
-        this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        this.timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
     }
 
     // Getter和Setter方法
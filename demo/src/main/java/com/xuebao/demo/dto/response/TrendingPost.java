@@ -0,0 +1,29 @@
+package com.xuebao.demo.dto.response;
+
+/**
+ * 热度榜条目：文章摘要 + 当前时刻的衰减热度
+ * 摘要来自 TrendingService 定时刷新的内存快照，浏览/点赞/评论数可能落后一个刷新周期
+ */
+public class TrendingPost {
+    private final int rank;
+    private final double score;
+    private final PostSummary post;
+
+    public TrendingPost(int rank, double score, PostSummary post) {
+        this.rank = rank;
+        this.score = score;
+        this.post = post;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public PostSummary getPost() {
+        return post;
+    }
+}
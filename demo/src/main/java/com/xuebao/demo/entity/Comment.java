@@ -2,7 +2,10 @@ package com.xuebao.demo.entity;
 
 import com.xuebao.demo.entity.Post;
 import com.xuebao.demo.entity.User;
+import com.xuebao.demo.util.CommentPath;
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +15,14 @@ import java.util.List;
  * 用于表示用户对博客文章的评论信息，支持多级回复功能。
  */
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        // 游标分页：文章顶级评论 / 评论回复 / 用户评论
+        @Index(name = "idx_comments_post_parent_created_at_id", columnList = "post_id, parent_comment_id, created_at, id"),
+        @Index(name = "idx_comments_parent_created_at_id", columnList = "parent_comment_id, created_at, id"),
+        @Index(name = "idx_comments_user_created_at_id", columnList = "author_id, created_at, id"),
+        // 物化路径：子树读取 / 计数 / 删除都是该索引上的范围扫描
+        @Index(name = "idx_comments_path", columnList = "path")
+})
 public class Comment {
 
     @Id
@@ -42,26 +52,47 @@ public class Comment {
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE) // 与 schema.sql 一致：删除文章时由数据库级联删除评论
     private Post post;
 
     /**
-     * 评论作者
+     * 评论作者（列名与 schema.sql 一致为 author_id；列表读取只用外键，作者摘要由 CommentAuthorCache 批量解析）
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
     /**
-     * 父级评论（用于回复功能）
+     * 父级评论（用于回复功能；列名与 schema.sql 一致为 parent_comment_id，旧库的 parent_id 由 schema.sql 迁移）
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "parent_id")
+    @JoinColumn(name = "parent_comment_id")
+    @OnDelete(action = OnDeleteAction.CASCADE) // 新建的外键带级联；已有外键由 schema.sql 迁移，CommentService 的删除不依赖它
     private Comment parentComment;
 
     /**
-     * 回复列表
+     * 物化路径（根评论到本评论的 id 序列，见 CommentPath），由 CommentService.createComment 在插入后写入；
+     * 旧数据为空，由 schema.sql 中的回填语句补齐
      */
-    @OneToMany(mappedBy = "parentComment", cascade = CascadeType.ALL) // 主要修正点：mappedBy = "parentComment"
+    @Column(name = "path", length = CommentPath.MAX_LENGTH, updatable = false)
+    private String path;
+
+    /**
+     * 层级（顶级评论为 0）
+     */
+    @Column(name = "depth", updatable = false)
+    private Integer depth;
+
+    /**
+     * 点赞数（由 LikeService 批量写回）
+     */
+    @Column(name = "like_count", columnDefinition = "INT DEFAULT 0", updatable = false)
+    private Integer likeCount = 0;
+
+    /**
+     * 回复列表（只读映射；删除整棵子树由 CommentService 按路径区间一条语句完成，不再逐个实体级联）
+     */
+    @OneToMany(mappedBy = "parentComment")
     private List<Comment> replies = new ArrayList<>();
 
     // 构造函数
@@ -151,6 +182,30 @@ public class Comment {
         this.parentComment = parentComment;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getReplies() {
         return replies;
     }
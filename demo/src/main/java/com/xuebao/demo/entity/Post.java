@@ -18,6 +18,10 @@ public class Post {
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // 文章摘要（列表页展示，为空时列表查询从正文截取）
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     @JsonIgnoreProperties({
@@ -38,14 +42,14 @@ public class Post {
     @Column(name = "keywords")
     private String keywords;
 
-    // 统计字段
-    @Column(name = "view_count", columnDefinition = "INT DEFAULT 0")
+    // 统计字段：只由原子增量语句维护（updatable = false），保存文章时不会用内存中的旧值覆盖
+    @Column(name = "view_count", columnDefinition = "INT DEFAULT 0", updatable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "like_count", columnDefinition = "INT DEFAULT 0")
+    @Column(name = "like_count", columnDefinition = "INT DEFAULT 0", updatable = false)
     private Integer likeCount = 0;
 
-    @Column(name = "comment_count", columnDefinition = "INT DEFAULT 0")
+    @Column(name = "comment_count", columnDefinition = "INT DEFAULT 0", updatable = false)
     private Integer commentCount = 0;
 
     // 必须有无参构造函数
@@ -102,6 +106,14 @@ public class Post {
         this.content = content;
     }
 
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
     public User getAuthor() {
         return author;
     }
@@ -0,0 +1,75 @@
+package com.xuebao.demo.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 关注关系：follower 关注 followee
+ * (follower_id, followee_id) 唯一，关注/取消关注幂等；(followee_id, follower_id) 索引用于发文时查找粉丝
+ */
+@Entity
+@Table(name = "user_follows",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_follows_follower_followee", columnNames = {"follower_id", "followee_id"}),
+        indexes = @Index(name = "idx_user_follows_followee_follower", columnList = "followee_id, follower_id"))
+public class UserFollow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "follower_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User follower;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "followee_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User followee;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public UserFollow() {
+    }
+
+    @PrePersist
+    protected void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getFollower() {
+        return follower;
+    }
+
+    public void setFollower(User follower) {
+        this.follower = follower;
+    }
+
+    public User getFollowee() {
+        return followee;
+    }
+
+    public void setFollowee(User followee) {
+        this.followee = followee;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
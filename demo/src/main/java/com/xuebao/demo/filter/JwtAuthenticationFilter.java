@@ -1,15 +1,22 @@
 package com.xuebao.demo.filter;
 
+import com.xuebao.demo.service.UserPrincipal;
+import com.xuebao.demo.service.UserPrincipalCache;
 import com.xuebao.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,10 +29,18 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache userPrincipalCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 用户详情来源：cache = 按用户名缓存查库结果；claims = 直接信任令牌中的用户 id/权限/启用声明，令牌过期前不查库
+    @Value("${blog.security.principal-source:cache}")
+    private String principalSource;
 
     // ✅ 修改：区分GET和POST的排除路径
     private static final List<String> GET_EXCLUDED_PATHS = Arrays.asList(
@@ -36,7 +51,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/api/posts",           // GET文章列表
             "/api/posts/",          // GET单篇文章
             "/api/comments/",       // GET评论
-            "/error"
+            "/error",
+            "/actuator/health",     // 健康检查
+            "/css/",                // 前端静态资源
+            "/js/"
     );
 
     private static final List<String> POST_EXCLUDED_PATHS = Arrays.asList(
@@ -52,43 +70,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String requestURI = request.getRequestURI();
         String method = request.getMethod().toUpperCase(); // ✅ 获取HTTP方法
-        System.out.println("=== JWT过滤器执行: " + method + " " + requestURI + " ===");
+        log.debug("JWT过滤器执行: {} {}", method, requestURI);
+        // 只统计过滤器自身的耗时（不含后续过滤器和控制器），按结果打标签
+        Timer.Sample sample = Timer.start();
 
         // ✅ 修改：区分HTTP方法的路径检查
         if (isExcludedPath(method, requestURI)) {
-            System.out.println("✅ 跳过JWT验证，公开接口: " + method + " " + requestURI);
+            log.debug("跳过JWT验证，公开接口: {} {}", method, requestURI);
+            recordTiming(sample, "skipped");
             chain.doFilter(request, response);
             return;
         }
 
         String authHeader = request.getHeader("Authorization");
-        System.out.println("Authorization头: " + (authHeader != null ? authHeader.substring(0, Math.min(20, authHeader.length())) + "..." : "null"));
 
         if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
-            System.out.println("❌ 无有效Authorization头，返回401错误");
+            log.debug("无有效Authorization头，返回401: {} {}", method, requestURI);
             // ✅ 修改：返回401而不是继续过滤器链
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"需要认证令牌\"}");
+            recordTiming(sample, "missing_token");
             return;
         }
 
         try {
             String token = authHeader.substring(7);
-            System.out.println("提取的Token: " + token.substring(0, Math.min(20, token.length())) + "...");
 
-            System.out.println("开始验证Token...");
-            boolean isValid = jwtUtil.validateToken(token);
-            System.out.println("Token验证结果: " + isValid);
+            // 只解析/验签一次，验证结果和用户名都来自同一个 Claims
+            Claims claims = jwtUtil.parseIfValid(token);
 
-            if (isValid) {
-                String username = jwtUtil.extractUsername(token);
-                System.out.println("从Token提取的用户名: " + username);
+            if (claims != null) {
+                String username = claims.getSubject();
+                log.debug("Token验证通过，用户名: {}", username);
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // 从数据库加载用户详情
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    System.out.println("✅ 用户详情加载成功: " + userDetails.getUsername());
+                    // 用户详情来自令牌声明或缓存，命中时不查库
+                    UserPrincipal userDetails = resolveUserDetails(claims, username);
+
+                    if (!userDetails.isEnabled()) {
+                        log.debug("账户已被禁用: {}", username);
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.setContentType("application/json");
+                        response.getWriter().write("{\"error\":\"账户已被禁用\"}");
+                        recordTiming(sample, "disabled");
+                        return;
+                    }
 
                     UsernamePasswordAuthenticationToken authenticationToken =
                             new UsernamePasswordAuthenticationToken(
@@ -98,36 +125,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             );
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-
-                    System.out.println("✅ 认证信息已设置到SecurityContext");
                 }
             } else {
-                System.out.println("❌ Token验证失败，返回401错误");
+                log.debug("Token验证失败，返回401: {} {}", method, requestURI);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\":\"Token无效或已过期\"}");
+                recordTiming(sample, "invalid_token");
                 return;
             }
         } catch (Exception e) {
-            System.out.println("❌ JWT过滤器异常: " + e.getMessage());
-            e.printStackTrace();
+            log.error("JWT过滤器异常: {} {}", method, requestURI, e);
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"认证处理失败\"}");
+            recordTiming(sample, "error");
             return;
         }
 
-        System.out.println("=== JWT过滤器执行结束 ===");
+        recordTiming(sample, "authenticated");
         chain.doFilter(request, response);
     }
 
-    // ✅ 新增：支持HTTP方法区分的路径检查
-    private boolean isExcludedPath(String method, String requestURI) {
-        System.out.println("🔍 检查路径: " + method + " " + requestURI);
+    private void recordTiming(Timer.Sample sample, String outcome) {
+        sample.stop(meterRegistry.timer("blog.security.jwt.filter", "outcome", outcome));
+    }
+
+    private UserPrincipal resolveUserDetails(Claims claims, String username) {
+        if ("claims".equalsIgnoreCase(principalSource)) {
+            Object authorities = claims.get(JwtUtil.CLAIM_AUTHORITIES);
+            Object userId = claims.get(JwtUtil.CLAIM_USER_ID);
+            // 旧令牌没有用户 id 或权限声明时回退到缓存
+            if (authorities instanceof List<?> authorityList && userId instanceof Number id) {
+                userPrincipalCache.recordClaimsAuthentication();
+                return new UserPrincipal(id.longValue(), username, "",
+                        !Boolean.FALSE.equals(claims.get(JwtUtil.CLAIM_ENABLED, Boolean.class)),
+                        AuthorityUtils.createAuthorityList(authorityList.stream().map(String::valueOf).toList()));
+            }
+        }
+        return userPrincipalCache.get(username);
+    }
 
+    // ✅ 新增：支持HTTP方法区分的路径检查（包级可见，供基准测试调用）
+    boolean isExcludedPath(String method, String requestURI) {
         // 1. OPTIONS预检请求总是放行
         if ("OPTIONS".equalsIgnoreCase(method)) {
-            System.out.println("✅ 放行OPTIONS预检请求");
             return true;
         }
 
@@ -135,28 +177,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         List<String> excludedPaths;
         if ("GET".equalsIgnoreCase(method)) {
             excludedPaths = GET_EXCLUDED_PATHS;
-            System.out.println("使用GET排除列表");
         } else if ("POST".equalsIgnoreCase(method)) {
             excludedPaths = POST_EXCLUDED_PATHS;
-            System.out.println("使用POST排除列表");
         } else {
             // 其他方法（PUT、DELETE等）需要认证
-            System.out.println("其他HTTP方法需要认证");
             return false;
         }
 
-        // 3. 检查路径匹配
+        // 3. 前端页面（/ 与根目录下的 .html）
+        if ("GET".equalsIgnoreCase(method) && isFrontendPage(requestURI)) {
+            return true;
+        }
+
+        // 4. 检查路径匹配
         for (String excludedPath : excludedPaths) {
             if (matchesPath(requestURI, excludedPath)) {
-                System.out.println("✅ 匹配排除路径: " + excludedPath);
                 return true;
             }
         }
 
-        System.out.println("❌ 路径需要JWT认证");
         return false;
     }
 
+    private static boolean isFrontendPage(String requestURI) {
+        return "/".equals(requestURI) || (requestURI.endsWith(".html") && requestURI.indexOf('/', 1) < 0);
+    }
+
     // ✅ 新增：改进的路径匹配方法（支持前缀匹配）
     private boolean matchesPath(String requestURI, String excludedPath) {
         // 精确匹配
@@ -0,0 +1,38 @@
+package com.xuebao.demo.filter;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * 列表接口的内容 ETag：按响应体 MD5 生成，计算前去掉 ResponseWrapper 的 timestamp 字段
+ * timestamp 精确到秒，不去掉的话跨秒的两次请求即使内容相同 ETag 也不同，永远等不到 304；
+ * 去掉后响应体不再逐字节对应 ETag，所以写弱 ETag
+ */
+public class ListingEtagFilter extends ShallowEtagHeaderFilter {
+
+    private static final Pattern WRAPPER_TIMESTAMP =
+            Pattern.compile("\"timestamp\":\"\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\"");
+
+    public ListingEtagFilter() {
+        setWriteWeakETag(true);
+    }
+
+    @Override
+    protected String generateETagHeaderValue(InputStream inputStream, boolean isWeak) throws IOException {
+        String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        String content = WRAPPER_TIMESTAMP.matcher(body).replaceAll("");
+        StringBuilder builder = new StringBuilder(37);
+        if (isWeak) {
+            builder.append("W/");
+        }
+        builder.append("\"0");
+        DigestUtils.appendMd5DigestAsHex(content.getBytes(StandardCharsets.UTF_8), builder);
+        builder.append('"');
+        return builder.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.xuebao.demo.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * 请求日志上下文：为每个请求写入 MDC requestId（日志格式中输出，便于串联同一请求的日志），
+ * 并在允许时根据 X-Debug-Log 请求头打开本次请求的 DEBUG 日志（见 logback-spring.xml 中的 turboFilter）
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String DEBUG_HEADER = "X-Debug-Log";
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_DEBUG = "debug";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    @Value("${blog.logging.request-debug.enabled:false}")
+    private boolean requestDebugEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        // 外部传入的 id 只接受长度受限的非空值，避免日志被超长内容污染
+        if (!StringUtils.hasText(requestId) || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            requestId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        }
+
+        MDC.put(MDC_REQUEST_ID, requestId);
+        if (requestDebugEnabled && "true".equalsIgnoreCase(request.getHeader(DEBUG_HEADER))) {
+            MDC.put(MDC_DEBUG, "true");
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_DEBUG);
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.xuebao.demo.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 控制器方法的每请求 SQL 预算，覆盖全局默认值（blog.sql.budget.*）
+ * 超出时记录告警日志和指标；blog.sql.budget.strict=true（测试环境）时超出语句数直接抛出 SqlBudgetExceededException
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * 最多执行的语句数（包括认证时的用户查询）
+     */
+    int maxStatements();
+
+    /**
+     * 数据库总耗时上限（毫秒），-1 表示使用全局默认值；只告警，不在严格模式下失败
+     */
+    long maxTimeMillis() default -1;
+}
@@ -0,0 +1,11 @@
+package com.xuebao.demo.filter;
+
+/**
+ * 严格模式下请求的 SQL 语句数超出 @SqlBudget 预算
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
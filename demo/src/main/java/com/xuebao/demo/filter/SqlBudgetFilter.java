@@ -0,0 +1,106 @@
+package com.xuebao.demo.filter;
+
+import com.xuebao.demo.util.SqlRequestContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每请求 SQL 统计与预算检查
+ * 在请求线程上开启 SqlRequestContext，请求结束后按路由模板记录语句数和数据库耗时指标；
+ * 超出预算（@SqlBudget 或全局默认值）时输出告警日志，附带按次数排序的 SQL 指纹，便于定位 N+1
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "blog.sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    // 告警日志中最多列出的指纹数
+    private static final int LOGGED_FINGERPRINTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxStatements;
+    private final long defaultMaxTimeMillis;
+    private final boolean strict;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry,
+                           @Value("${blog.sql.budget.max-statements:10}") int defaultMaxStatements,
+                           @Value("${blog.sql.budget.max-time-ms:50}") long defaultMaxTimeMillis,
+                           @Value("${blog.sql.budget.strict:false}") boolean strict) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.defaultMaxTimeMillis = defaultMaxTimeMillis;
+        this.strict = strict;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        SqlRequestContext context = SqlRequestContext.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.end();
+        }
+        check(request, context);
+    }
+
+    private void check(HttpServletRequest request, SqlRequestContext context) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("blog.sql.statements")
+                .description("每请求执行的 SQL 语句数")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(context.getStatementCount());
+        meterRegistry.timer("blog.sql.time", "method", method, "uri", uri)
+                .record(context.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        int maxStatements = context.hasDeclaredBudget() ? context.getMaxStatements() : defaultMaxStatements;
+        long maxTimeMillis = context.getMaxTimeMillis() != null && context.getMaxTimeMillis() >= 0
+                ? context.getMaxTimeMillis() : defaultMaxTimeMillis;
+        double timeMillis = context.getTotalNanos() / 1_000_000.0;
+        boolean tooManyStatements = context.getStatementCount() > maxStatements;
+        boolean tooSlow = timeMillis > maxTimeMillis;
+        if (!tooManyStatements && !tooSlow) {
+            return;
+        }
+
+        if (tooManyStatements) {
+            meterRegistry.counter("blog.sql.budget.violations", "method", method, "uri", uri, "kind", "statements").increment();
+        }
+        if (tooSlow) {
+            meterRegistry.counter("blog.sql.budget.violations", "method", method, "uri", uri, "kind", "time").increment();
+        }
+        String message = String.format("SQL 预算超出: %s %s 执行 %d 条语句（预算 %d），数据库耗时 %.1f ms（预算 %d ms），主要语句: %s",
+                method, uri, context.getStatementCount(), maxStatements, timeMillis, maxTimeMillis,
+                context.getTopFingerprints(LOGGED_FINGERPRINTS));
+        log.warn(message);
+
+        if (strict && tooManyStatements && context.hasDeclaredBudget()) {
+            throw new SqlBudgetExceededException(message);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
@@ -25,7 +26,10 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
                                         Authentication authentication) throws IOException {
 
         String username = authentication.getName();
-        String token = jwtUtil.generateToken(username);
+        // 令牌携带权限和启用状态，供 principal-source=claims 模式使用
+        String token = authentication.getPrincipal() instanceof UserDetails userDetails
+                ? jwtUtil.generateToken(userDetails)
+                : jwtUtil.generateToken(username);
 
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("success", true);
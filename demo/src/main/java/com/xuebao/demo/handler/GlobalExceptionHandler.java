@@ -1,6 +1,8 @@
 package com.xuebao.demo.handler;
 
 import com.xuebao.demo.dto.response.ResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,6 +19,8 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     // 处理参数校验异常
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ResponseWrapper<?>> handleValidationException(MethodArgumentNotValidException e) {
@@ -63,7 +67,7 @@ public class GlobalExceptionHandler {
     // 处理其他所有异常
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseWrapper<?>> handleException(Exception e) {
-        e.printStackTrace();
+        log.error("未处理的异常", e);
         // ✅ 使用int类型状态码
         ResponseWrapper<?> response = ResponseWrapper.error(500, "服务器内部错误");
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
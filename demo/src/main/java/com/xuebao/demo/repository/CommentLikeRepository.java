@@ -0,0 +1,33 @@
+package com.xuebao.demo.repository;
+
+import com.xuebao.demo.entity.CommentLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
+
+    // 点赞：已存在时不报错，返回实际插入的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO comment_likes (user_id, comment_id, created_at) " +
+            "VALUES (:userId, :commentId, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    // 取消点赞：返回实际删除的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CommentLike l WHERE l.user.id = :userId AND l.comment.id = :commentId")
+    int deleteByUserIdAndCommentId(@Param("userId") Long userId, @Param("commentId") Long commentId);
+
+    // 批量查询用户点赞过的评论 id（走 (user_id, comment_id) 唯一索引）
+    @Query("SELECT l.comment.id FROM CommentLike l WHERE l.user.id = :userId AND l.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+}
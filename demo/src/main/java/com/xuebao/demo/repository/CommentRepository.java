@@ -1,13 +1,23 @@
 package com.xuebao.demo.repository;
+import com.xuebao.demo.dto.response.CommentResponse;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.entity.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    // 列表查询只取评论行（作者为外键代理），作者摘要由 CommentAuthorCache 按 id 批量解析，不逐条懒加载 User
     // 查找文章的所有顶级评论（无父评论）
     List<Comment> findByPostIdAndParentCommentIsNullOrderByCreatedAtDesc(Long postId);
 
@@ -17,6 +27,77 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // 查找用户的所有评论
     List<Comment> findByAuthorIdOrderByCreatedAtDesc(Long authorId);
 
+    // 评论详情（含作者）
+    @EntityGraph(attributePaths = "author")
+    Optional<Comment> findWithAuthorById(Long id);
+
+    // ==================== 游标（keyset）分页查询 ====================
+    // 返回 Slice，不执行 COUNT；顶级评论和用户评论按 (createdAt DESC, id DESC)，回复按 (createdAt ASC, id ASC)
+    // 依赖索引 idx_comments_post_parent_created_at_id / idx_comments_parent_created_at_id / idx_comments_user_created_at_id
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parentComment IS NULL " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findFirstTopLevelSlice(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parentComment IS NULL " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findTopLevelSliceAfter(@Param("postId") Long postId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parentId " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    Slice<Comment> findFirstReplySlice(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parentId " +
+            "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    Slice<Comment> findReplySliceAfter(@Param("parentId") Long parentId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findFirstSliceByAuthor(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findSliceByAuthorAfter(@Param("authorId") Long authorId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    // 评论树：一条查询取出文章下全部评论的扁平行（作者 id、父评论 id 均取外键列，不连接 users），由 CommentTreeBuilder 在内存中组装
+    @Query("SELECT new com.xuebao.demo.dto.response.CommentResponse(" +
+            "c.id, c.content, c.createdAt, c.updatedAt, c.author.id, c.post.id, c.parentComment.id, c.likeCount) " +
+            "FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findTreeRowsByPostId(@Param("postId") Long postId);
+
+    // ==================== 物化路径（见 CommentPath） ====================
+    // 子树 = [path, upperBound(path))，均为 idx_comments_path 上的一次范围扫描
+
+    // 插入后写入路径（需要自增 id）；批量 UPDATE 不触发 @PreUpdate，updatedAt 保持不变
+    @Modifying
+    @Query("UPDATE Comment c SET c.path = :path WHERE c.id = :id")
+    int assignPath(@Param("id") Long id, @Param("path") String path);
+
+    // 子树的扁平行，按路径排序即深度优先的讨论串顺序（父在前，同级按 id）
+    @Query("SELECT new com.xuebao.demo.dto.response.CommentResponse(" +
+            "c.id, c.content, c.createdAt, c.updatedAt, c.author.id, c.post.id, c.parentComment.id, c.likeCount) " +
+            "FROM Comment c WHERE c.path >= :path AND c.path < :upperBound AND c.depth <= :maxDepth ORDER BY c.path")
+    List<CommentResponse> findSubtreeRows(@Param("path") String path,
+                                          @Param("upperBound") String upperBound,
+                                          @Param("maxDepth") int maxDepth);
+
+    // 删除整棵子树（含自身），返回删除的条数
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.path >= :path AND c.path < :upperBound")
+    int deleteSubtree(@Param("path") String path, @Param("upperBound") String upperBound);
+
     // 使用JPQL进行复杂查询示例
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.content LIKE %:keyword%")
     List<Comment> findByPostAndKeyword(@Param("postId") Long postId,
@@ -25,4 +106,31 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // 统计文章的评论数量
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
     Long countByPostId(@Param("postId") Long postId);
-}
\ No newline at end of file
+
+    // 文章评论列表的版本（条件请求用）：一条聚合查询，不加载评论；文章不存在时为空
+    @Query("SELECT new com.xuebao.demo.dto.response.ResourceVersion(" +
+            "p.id, MAX(c.updatedAt), COUNT(c), SUM(c.likeCount), MAX(c.id)) " +
+            "FROM Post p LEFT JOIN Comment c ON c.post = p WHERE p.id = :postId GROUP BY p.id")
+    Optional<ResourceVersion> findCommentsVersionByPostId(@Param("postId") Long postId);
+
+    // 以该评论为根的子树 id（含自身），逐层递归；仅用于路径尚未回填的旧评论
+    @Query(value = "WITH RECURSIVE subtree(id) AS (" +
+            "SELECT id FROM comments WHERE id = :commentId " +
+            "UNION ALL SELECT c.id FROM comments c JOIN subtree s ON c.parent_comment_id = s.id) " +
+            "SELECT id FROM subtree", nativeQuery = true)
+    List<Long> findSubtreeIds(@Param("commentId") Long commentId);
+
+    // 以该评论为根的子树扁平行（含自身），逐层递归，一条查询；仅用于路径尚未回填的旧评论的讨论串
+    @Query("WITH subtree AS (" +
+            "SELECT c.id AS id FROM Comment c WHERE c.id = :commentId " +
+            "UNION ALL SELECT c.id AS id FROM Comment c JOIN subtree s ON c.parentComment.id = s.id) " +
+            "SELECT new com.xuebao.demo.dto.response.CommentResponse(" +
+            "c.id, c.content, c.createdAt, c.updatedAt, c.author.id, c.post.id, c.parentComment.id, c.likeCount) " +
+            "FROM Comment c WHERE c.id IN (SELECT s.id FROM subtree s) ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findSubtreeRowsRecursive(@Param("commentId") Long commentId);
+
+    // 按 id 批量删除，返回删除的条数；父子同在一条语句中删除，不依赖外键级联
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,93 @@
+package com.xuebao.demo.repository;
+
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.entity.FeedItem;
+import com.xuebao.demo.enums.PostStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FeedItemRepository extends JpaRepository<FeedItem, Long> {
+    // 动态列表：按接收者取 feed_items 的一段区间并直接关联出文章摘要（一条语句），
+    // 按 (created_at DESC, post_id DESC) 定位，与文章列表的游标格式一致；依赖索引 idx_feed_items_user_created_at_post
+    String FEED_SELECT = PostRepository.SUMMARY_SELECT + "JOIN FeedItem f ON f.post = p " +
+            "WHERE f.user.id = :userId AND p.status = :status ";
+
+    @Query(FEED_SELECT + "ORDER BY f.createdAt DESC, f.post.id DESC")
+    Slice<PostSummary> findFirstSlice(@Param("userId") Long userId,
+                                      @Param("status") PostStatus status,
+                                      Pageable pageable);
+
+    @Query(FEED_SELECT +
+            "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.post.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.post.id DESC")
+    Slice<PostSummary> findSliceAfter(@Param("userId") Long userId,
+                                      @Param("status") PostStatus status,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // 写扩散：一条 INSERT ... SELECT 为作者的全部粉丝写入动态，返回写入的行数
+    // 在发文事务的提交回调中调用，此时原事务已结束，需要新开事务
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO feed_items (user_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, :postId, :authorId, :createdAt FROM user_follows f WHERE f.followee_id = :authorId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("postId") Long postId,
+               @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // 新关注时补入该作者最近已发布的 limit 篇文章
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO feed_items (user_id, post_id, author_id, created_at) " +
+            "SELECT :userId, p.id, p.author_id, p.created_at FROM posts p " +
+            "WHERE p.author_id = :authorId AND p.status = 'PUBLISHED' AND p.created_at IS NOT NULL " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // 作者跌出大 V 名单时，把其最近已发布的 limit 篇文章一次写入全部粉丝的动态（此前这些文章只在读时拉取）
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO feed_items (user_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, p.id, p.author_id, p.created_at FROM user_follows f CROSS JOIN (" +
+            "SELECT id, author_id, created_at FROM posts " +
+            "WHERE author_id = :authorId AND status = 'PUBLISHED' AND created_at IS NOT NULL " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit) p " +
+            "WHERE f.followee_id = :authorId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillFollowers(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // 取消关注时移除该作者的全部动态
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FeedItem f WHERE f.user.id = :userId AND f.author.id = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    // 裁剪 [fromUserId, toUserId] 范围内每个用户超出 maxItems 的旧动态，返回删除的行数
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM feed_items WHERE id IN (" +
+            "SELECT ranked.id FROM (" +
+            "SELECT fi.id AS id, ROW_NUMBER() OVER (PARTITION BY fi.user_id ORDER BY fi.created_at DESC, fi.post_id DESC) AS rn " +
+            "FROM feed_items fi WHERE fi.user_id BETWEEN :fromUserId AND :toUserId) ranked " +
+            "WHERE ranked.rn > :maxItems)", nativeQuery = true)
+    int trim(@Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId, @Param("maxItems") int maxItems);
+
+    @Query("SELECT MIN(f.user.id) FROM FeedItem f")
+    Long findMinUserId();
+
+    @Query("SELECT MAX(f.user.id) FROM FeedItem f")
+    Long findMaxUserId();
+}
@@ -0,0 +1,33 @@
+package com.xuebao.demo.repository;
+
+import com.xuebao.demo.entity.PostLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
+
+    // 点赞：已存在时不报错，返回实际插入的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO post_likes (user_id, post_id, created_at) " +
+            "VALUES (:userId, :postId, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // 取消点赞：返回实际删除的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // 批量查询用户点赞过的文章 id（走 (user_id, post_id) 唯一索引）
+    @Query("SELECT l.post.id FROM PostLike l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+}
@@ -1,29 +1,183 @@
 package com.xuebao.demo.repository;
 
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.entity.Post;
 import com.xuebao.demo.enums.PostStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // 列表摘要的构造器表达式：只取列表需要的列，不加载 content 全文和作者实体
+    String SUMMARY_SELECT = "SELECT new com.xuebao.demo.dto.response.PostSummary(" +
+            "p.id, p.title, COALESCE(p.summary, SUBSTRING(p.content, 1, " + PostSummary.EXCERPT_LENGTH + ")), " +
+            "a.id, a.username, a.nickname, " +
+            "p.viewCount, p.likeCount, p.commentCount, p.status, p.createdAt) " +
+            "FROM Post p LEFT JOIN p.author a ";
+    // 流式导出的 JDBC fetch size
+    String EXPORT_FETCH_SIZE = "500";
+
     // 目前不需要写任何方法，基本的save, findAll, findById, deleteById都已存在
+    // 返回实体的查询通过 @EntityGraph 一并 fetch join 作者，避免序列化时逐行加载 User（N+1）
+    @EntityGraph(attributePaths = "author")
     List<Post> findByTitleContaining(String keyword);
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByTitleContaining(String keyword, Pageable pageable);
     // 同时搜索标题和内容
+    @EntityGraph(attributePaths = "author")
     List<Post> findByTitleContainingOrContentContaining(String title, String content);
+    @EntityGraph(attributePaths = "author")
     Page<Post> findAll(Pageable pageable);
 
     // 按状态筛选分页查询
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByStatus(PostStatus status, Pageable pageable);
 
     // 按作者筛选分页查询
     Page<Post> findByAuthor(String author, Pageable pageable);
 
     // 综合条件分页查询（标题或内容包含关键词）
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByTitleContainingOrContentContaining(String title, String content, Pageable pageable);
-}
\ No newline at end of file
+
+    // 文章详情：同时加载作者（open-in-view 已关闭，序列化时不能再懒加载）
+    @EntityGraph(attributePaths = "author")
+    Optional<Post> findWithAuthorById(Long id);
+
+    // 文章详情的版本（条件请求用）：只查版本相关的列，与 ResourceVersion.of(Post) 计算方式一致
+    @Query("SELECT new com.xuebao.demo.dto.response.ResourceVersion(" +
+            "p.id, COALESCE(p.updatedAt, p.createdAt), p.likeCount, p.commentCount) FROM Post p WHERE p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    // ==================== 列表摘要查询（PostSummary） ====================
+
+    // 全量导出：游标式逐行读取（需在事务内消费并关闭），每次向数据库取 EXPORT_FETCH_SIZE 行
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<PostSummary> streamAllSummaries();
+
+    @Query(value = SUMMARY_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.title LIKE %:keyword%",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.title LIKE %:keyword%")
+    Page<PostSummary> findSummariesByTitleContaining(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.status = :status")
+    Page<PostSummary> findSummariesByStatus(@Param("status") PostStatus status, Pageable pageable);
+
+    // 热度榜冷启动：没有检查点时按时间窗口内已发布文章的计数估算初始热度
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND p.createdAt >= :since")
+    List<PostSummary> findSummariesByStatusCreatedSince(@Param("status") PostStatus status,
+                                                        @Param("since") LocalDateTime since);
+
+    // ==================== 游标（keyset）分页查询 ====================
+    // 按 (createdAt DESC, id DESC) 定位，返回 Slice，不执行 COUNT 查询
+    // 依赖索引 idx_posts_created_at_id / idx_posts_status_created_at_id
+
+    @Query(SUMMARY_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findFirstSlice(Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findSliceAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findFirstSliceByStatus(@Param("status") PostStatus status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findSliceByStatusAfter(@Param("status") PostStatus status,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    // 游标模式的关键词筛选只匹配标题；正文检索走 PostSearchService（按相关度排序，无法按时间 seek）
+    @Query(SUMMARY_SELECT + "WHERE p.title LIKE %:keyword% " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findFirstSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.title LIKE %:keyword% " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findSliceByKeywordAfter(@Param("keyword") String keyword,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    // 关注动态的读时拉取：当前用户关注的大 V 作者（authorIds）已发布的文章，依赖索引 idx_posts_author_created_at_id
+    @Query(SUMMARY_SELECT + "WHERE a.id IN :authorIds AND p.status = :status " +
+            "AND EXISTS (SELECT 1 FROM UserFollow uf WHERE uf.follower.id = :userId AND uf.followee.id = a.id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findFirstSliceByFollowedAuthors(@Param("userId") Long userId,
+                                                       @Param("authorIds") Collection<Long> authorIds,
+                                                       @Param("status") PostStatus status,
+                                                       Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id IN :authorIds AND p.status = :status " +
+            "AND EXISTS (SELECT 1 FROM UserFollow uf WHERE uf.follower.id = :userId AND uf.followee.id = a.id) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummary> findSliceByFollowedAuthorsAfter(@Param("userId") Long userId,
+                                                       @Param("authorIds") Collection<Long> authorIds,
+                                                       @Param("status") PostStatus status,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    // ==================== 全文检索 ====================
+
+    // 按 id 批量取摘要（检索结果按相关度排序后回填；热度榜定时刷新摘要）
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // PostgreSQL tsvector 检索：内层按相关度排序分页，外层只对当前页生成高亮片段
+    @Query(value = "SELECT r.id AS id, r.score AS score, " +
+            "ts_headline(CAST(:config AS regconfig), COALESCE(p.content, ''), r.query, :options) AS highlight " +
+            "FROM (SELECT sp.id AS id, CAST(ts_rank_cd(sp.search_vector, q) AS double precision) AS score, q AS query " +
+            "      FROM posts sp, websearch_to_tsquery(CAST(:config AS regconfig), :keyword) q " +
+            "      WHERE sp.search_vector @@ q " +
+            "      ORDER BY score DESC, sp.id DESC LIMIT :limit OFFSET :offset) r " +
+            "JOIN posts p ON p.id = r.id " +
+            "ORDER BY r.score DESC, r.id DESC",
+            nativeQuery = true)
+    List<PostSearchRow> searchFullText(@Param("config") String config,
+                                       @Param("keyword") String keyword,
+                                       @Param("options") String options,
+                                       @Param("limit") int limit,
+                                       @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) FROM posts p " +
+            "WHERE p.search_vector @@ websearch_to_tsquery(CAST(:config AS regconfig), :keyword)",
+            nativeQuery = true)
+    long countFullText(@Param("config") String config, @Param("keyword") String keyword);
+
+    // 评论数原子增减（行内自增，不会与并发评论互相覆盖；不低于 0）
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = GREATEST(COALESCE(comment_count, 0) + :delta, 0) WHERE id = :postId",
+            nativeQuery = true)
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+}
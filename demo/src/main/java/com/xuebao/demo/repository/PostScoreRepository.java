@@ -0,0 +1,111 @@
+package com.xuebao.demo.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热度榜检查点（post_scores）的批量读写
+ * 每个窗口整组替换：一条 DELETE + 每 500 行一条 INSERT ... SELECT FROM (VALUES ...)，
+ * 只写入仍然存在的文章（JOIN posts），检查点期间被删除的文章不会触发外键错误
+ */
+@Repository
+@Timed("blog.repository")
+public class PostScoreRepository {
+
+    // 单条语句包含的最大行数（每行两个绑定参数）
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostScoreRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 用 scores（post_id → at 时刻的分数）整组替换该窗口的检查点，返回写入的行数
+     */
+    @Transactional
+    public int replaceWindow(String windowName, List<Map.Entry<Long, Double>> scores, LocalDateTime at) {
+        jdbcTemplate.update("DELETE FROM post_scores WHERE window_name = ?", windowName);
+        int written = 0;
+        for (int from = 0; from < scores.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, Double>> chunk = scores.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, scores.size()));
+            written += jdbcTemplate.update(buildInsertSql(chunk.size()), toArgs(windowName, at, chunk));
+        }
+        return written;
+    }
+
+    /**
+     * 读取全部检查点
+     */
+    public List<ScoreRow> findAll() {
+        return jdbcTemplate.query("SELECT window_name, post_id, score, updated_at FROM post_scores",
+                (rs, rowNum) -> new ScoreRow(rs.getString(1), rs.getLong(2), rs.getDouble(3),
+                        rs.getTimestamp(4).toLocalDateTime()));
+    }
+
+    private static String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder()
+                .append("INSERT INTO post_scores (window_name, post_id, score, updated_at) ")
+                .append("SELECT CAST(? AS VARCHAR(16)), v.id, v.score, CAST(? AS TIMESTAMP) FROM (VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION))");
+        }
+        return sql.append(") AS v(id, score) JOIN posts p ON p.id = v.id").toString();
+    }
+
+    private static Object[] toArgs(String windowName, LocalDateTime at, List<Map.Entry<Long, Double>> chunk) {
+        Object[] args = new Object[2 + chunk.size() * 2];
+        int i = 0;
+        args[i++] = windowName;
+        args[i++] = Timestamp.valueOf(at);
+        for (Map.Entry<Long, Double> entry : chunk) {
+            args[i++] = entry.getKey();
+            args[i++] = entry.getValue();
+        }
+        return args;
+    }
+
+    /**
+     * 检查点的一行
+     */
+    public static class ScoreRow {
+        private final String windowName;
+        private final long postId;
+        private final double score;
+        private final LocalDateTime updatedAt;
+
+        public ScoreRow(String windowName, long postId, double score, LocalDateTime updatedAt) {
+            this.windowName = windowName;
+            this.postId = postId;
+            this.score = score;
+            this.updatedAt = updatedAt;
+        }
+
+        public String getWindowName() {
+            return windowName;
+        }
+
+        public long getPostId() {
+            return postId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.xuebao.demo.repository;
+
+/**
+ * PostgreSQL 全文检索原生查询的结果投影
+ */
+public interface PostSearchRow {
+
+    Long getId();
+
+    Double getScore();
+
+    String getHighlight();
+}
@@ -0,0 +1,26 @@
+package com.xuebao.demo.repository;
+
+import com.xuebao.demo.entity.UserFollow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserFollowRepository extends JpaRepository<UserFollow, Long> {
+
+    // 关注：已存在时不报错，返回实际插入的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_follows (follower_id, followee_id, created_at) " +
+            "VALUES (:followerId, :followeeId, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    // 取消关注：返回实际删除的行数（0 或 1）
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserFollow f WHERE f.follower.id = :followerId AND f.followee.id = :followeeId")
+    int deleteByFollowerIdAndFolloweeId(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+}
@@ -1,11 +1,17 @@
 package com.xuebao.demo.repository;
 
+import com.xuebao.demo.dto.response.AuthorSummary;
 import com.xuebao.demo.entity.User;
 import org.springframework.data.domain.Example;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 @Repository
@@ -14,4 +20,23 @@ public interface UserRepository extends JpaRepository<User,Long> {
     Optional<User> findByUsername(String username);
 
     Optional<Object> findByEmail(String email);
+
+    // 批量取评论作者摘要：一条 WHERE id IN (...) 查询，只取展示用的列
+    @Query("SELECT new com.xuebao.demo.dto.response.AuthorSummary(u.id, u.username, u.nickname, u.avatarUrl) " +
+            "FROM User u WHERE u.id IN :ids")
+    List<AuthorSummary> findAuthorSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 粉丝数达到阈值的用户 id（关注动态对这些作者改为读时拉取）
+    @Query("SELECT u.id FROM User u WHERE u.followerCount >= :threshold")
+    List<Long> findIdsByFollowerCountAtLeast(@Param("threshold") int threshold);
+
+    // 关注/取消关注时一条语句同时调整双方的粉丝数与关注数（不低于 0）
+    @Modifying
+    @Query(value = "UPDATE users SET " +
+            "follower_count = GREATEST(COALESCE(follower_count, 0) + CASE WHEN id = :followeeId THEN :delta ELSE 0 END, 0), " +
+            "following_count = GREATEST(COALESCE(following_count, 0) + CASE WHEN id = :followerId THEN :delta ELSE 0 END, 0) " +
+            "WHERE id IN (:followerId, :followeeId)", nativeQuery = true)
+    int adjustFollowCounts(@Param("followerId") Long followerId,
+                           @Param("followeeId") Long followeeId,
+                           @Param("delta") int delta);
 }
@@ -0,0 +1,47 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.repository.CounterBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 文章评论数校正任务
+ * comment_count 平时由评论增删时的原子增减维护，该任务定期按 id 区间分批与 comments 表实际数量比对，
+ * 修正并发或手工改库造成的偏差；每批一条 UPDATE，只改写有偏差的行
+ */
+@Service
+public class CommentCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountReconciler.class);
+
+    private final CounterBatchRepository counterBatchRepository;
+    private final int batchSize;
+
+    public CommentCountReconciler(CounterBatchRepository counterBatchRepository,
+                                  @Value("${blog.comment-count.reconcile-batch-size:1000}") int batchSize) {
+        this.counterBatchRepository = counterBatchRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 校正所有文章的评论数，返回被修正的文章数
+     */
+    @Scheduled(cron = "${blog.comment-count.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long[] range = counterBatchRepository.findPostIdRange();
+        if (range == null) {
+            return 0;
+        }
+        int fixed = 0;
+        for (long from = range[0]; from <= range[1]; from += batchSize) {
+            fixed += counterBatchRepository.reconcileCommentCounts(from, from + batchSize - 1);
+        }
+        if (fixed > 0) {
+            log.info("评论数校正完成，修正 {} 篇文章", fixed);
+        }
+        return fixed;
+    }
+}
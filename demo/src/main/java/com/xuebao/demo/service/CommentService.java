@@ -1,18 +1,38 @@
 package com.xuebao.demo.service;
 import com.xuebao.demo.dto.CommentDTO;
+import com.xuebao.demo.dto.response.AuthorSummary;
+import com.xuebao.demo.dto.response.CommentResponse;
+import com.xuebao.demo.dto.response.CommentTree;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.entity.Comment;
 import com.xuebao.demo.entity.Post;
 import com.xuebao.demo.entity.User;
 import com.xuebao.demo.repository.CommentRepository;
 import com.xuebao.demo.repository.PostRepository;
 import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.cache.CommentAuthorCache;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import com.xuebao.demo.service.trending.TrendingService;
+import com.xuebao.demo.util.CommentPath;
+import com.xuebao.demo.util.CommentTreeBuilder;
+import com.xuebao.demo.util.CursorUtil;
+import com.xuebao.demo.util.TransactionUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("blog.service")
 @Transactional
 public class CommentService {
 
@@ -25,29 +45,18 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
 
-    /**
-     * 创建评论
-     */
-    public CommentDTO convertToDTO(Comment comment) {
-        CommentDTO dto = new CommentDTO();
-        dto.setId(comment.getId());
-        dto.setContent(comment.getContent());
-
-        // 安全地设置作者名
-        if (comment.getAuthor() != null) {
-            dto.setAuthorName(comment.getAuthor().getUsername());
-        }
+    @Autowired
+    private CommentAuthorCache commentAuthorCache;
 
-        if (comment.getPost() != null) {
-            dto.setPostId(comment.getPost().getId());
-        }
+    @Autowired
+    private TrendingService trendingService;
 
-        if (comment.getParentComment() != null) {
-            dto.setParentCommentId(comment.getParentComment().getId());
-        }
+    @Autowired
+    private PostDetailCache postDetailCache;
 
-        return dto;
-    }
+    /**
+     * 创建评论
+     */
     public Comment createComment(Comment comment) {
         // 基础数据验证
         if (comment.getContent() == null || comment.getContent().trim().isEmpty()) {
@@ -73,21 +82,41 @@ public class CommentService {
         comment.setAuthor(author);
 
         // 处理父级评论（如果是回复）
+        Comment parentComment = null;
         if (comment.getParentComment() != null && comment.getParentComment().getId() != null) {
-            Comment parentComment = commentRepository.findById(comment.getParentComment().getId())
+            parentComment = commentRepository.findById(comment.getParentComment().getId())
                     .orElseThrow(() -> new RuntimeException("父级评论不存在"));
-            comment.setParentComment(parentComment);
+            if (parentComment.getDepth() != null && parentComment.getDepth() >= CommentPath.MAX_DEPTH) {
+                throw new IllegalArgumentException("回复层级过深");
+            }
         }
+        comment.setParentComment(parentComment);
+        // 父评论是尚未回填路径的旧数据时，路径和层级都留空，由回填语句统一补齐
+        boolean pathKnown = parentComment == null || parentComment.getPath() != null;
+        comment.setDepth(parentComment == null ? Integer.valueOf(0)
+                : pathKnown ? Integer.valueOf(parentComment.getDepth() + 1) : null);
 
         // 时间戳由 @PrePersist 自动处理
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        if (pathKnown) {
+            String path = CommentPath.append(parentComment == null ? null : parentComment.getPath(), savedComment.getId());
+            commentRepository.assignPath(savedComment.getId(), path);
+            savedComment.setPath(path);
+        }
+        // 与评论插入在同一事务内原子自增文章评论数，提交后失效文章详情缓存
+        postRepository.adjustCommentCount(post.getId(), 1);
+        TransactionUtil.afterCommit(() -> {
+            postDetailCache.evict(post.getId());
+            trendingService.recordComment(post.getId(), 1);
+        });
+        return savedComment;
     }
     /**
      * 根据ID获取评论
      */
     @Transactional(readOnly = true)
     public Comment getCommentById(Long id) {
-        return commentRepository.findById(id)
+        return commentRepository.findWithAuthorById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
     }
     /**
@@ -103,6 +132,49 @@ public class CommentService {
         return commentRepository.findByPostIdAndParentCommentIsNullOrderByCreatedAtDesc(postId);
     }
 
+    /**
+     * 文章评论列表的版本（条件请求用，一条聚合查询），文章不存在时返回 null
+     */
+    public ResourceVersion getCommentsVersion(Long postId) {
+        return commentRepository.findCommentsVersionByPostId(postId).orElse(null);
+    }
+
+    /**
+     * 获取文章的完整评论树（一条查询 + 内存 O(n) 组装）
+     */
+    @Transactional(readOnly = true)
+    public CommentTree getCommentTree(Long postId, Integer maxDepth, Integer limitPerLevel) {
+        List<CommentResponse> rows = commentRepository.findTreeRowsByPostId(postId);
+        // 只有没有评论时才额外确认文章是否存在
+        if (rows.isEmpty() && !postRepository.existsById(postId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "未找到ID为 " + postId + " 的文章");
+        }
+        fillAuthors(rows);
+        return CommentTreeBuilder.build(postId, rows, maxDepth, limitPerLevel);
+    }
+
+    /**
+     * 获取以某条评论为根的讨论串（按物化路径一次范围查询，不逐层递归；路径尚未回填的旧评论退回一条递归查询）
+     * maxDepth 为相对该评论的层数（1 表示只返回该评论本身），limitPerLevel 同评论树
+     */
+    @Transactional(readOnly = true)
+    public CommentTree getCommentThread(Long commentId, Integer maxDepth, Integer limitPerLevel) {
+        Comment root = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "未找到ID为 " + commentId + " 的评论"));
+        int depthLimit = maxDepth == null ? CommentTreeBuilder.MAX_DEPTH
+                : Math.min(Math.max(maxDepth, 1), CommentTreeBuilder.MAX_DEPTH);
+        List<CommentResponse> rows;
+        if (root.getPath() != null) {
+            rows = commentRepository.findSubtreeRows(
+                    root.getPath(), CommentPath.upperBound(root.getPath()), root.getDepth() + depthLimit - 1);
+        } else {
+            // 路径尚未回填的旧评论：递归取出整棵子树，层数由 CommentTreeBuilder 截断
+            rows = commentRepository.findSubtreeRowsRecursive(commentId);
+        }
+        fillAuthors(rows);
+        return CommentTreeBuilder.build(root.getPost().getId(), rows, depthLimit, limitPerLevel);
+    }
+
     /**
      * 获取评论的所有回复
      */
@@ -143,7 +215,20 @@ public class CommentService {
             throw new SecurityException("无权删除他人的评论");
         }
 
-        commentRepository.delete(comment);
+        // 整棵子树按路径区间一条 DELETE 删除，文章评论数按删除条数扣减
+        Long postId = comment.getPost().getId();
+        long removed;
+        if (comment.getPath() != null) {
+            removed = commentRepository.deleteSubtree(comment.getPath(), CommentPath.upperBound(comment.getPath()));
+        } else {
+            // 路径尚未回填的旧评论：递归取出子树 id 后按 id 一次删除（旧库的外键不一定带级联）
+            removed = commentRepository.deleteByIds(commentRepository.findSubtreeIds(commentId));
+        }
+        postRepository.adjustCommentCount(postId, (int) -removed);
+        TransactionUtil.afterCommit(() -> {
+            postDetailCache.evict(postId);
+            trendingService.recordComment(postId, (int) -removed);
+        });
     }
 
     /**
@@ -158,4 +243,80 @@ public class CommentService {
         // 假设您在 CommentRepository 中定义了该方法
         return commentRepository.findByAuthorIdOrderByCreatedAtDesc(userId);
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量转换评论列表：整批作者通过 CommentAuthorCache 一次解析（未命中的合并为一条 IN 查询），
+     * 语句数与评论条数无关
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDTO> toDTOs(List<Comment> comments) {
+        Map<Long, AuthorSummary> authors = resolveAuthors(comments);
+        return comments.stream()
+                .map(comment -> CommentDTO.fromEntity(comment, authors.get(comment.getAuthor().getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 游标分页获取文章的顶级评论（最新在前）
+     * 在事务内转换为 DTO，避免事务外访问懒加载关联
+     */
+    @Transactional(readOnly = true)
+    public Slice<CommentDTO> getTopLevelCommentsAfter(Long postId, String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Comment> slice = cursor == null
+                ? commentRepository.findFirstTopLevelSlice(postId, pageable)
+                : commentRepository.findTopLevelSliceAfter(postId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        return toDTOs(slice);
+    }
+
+    /**
+     * 游标分页获取评论的回复（按时间正序）
+     */
+    @Transactional(readOnly = true)
+    public Slice<CommentDTO> getRepliesAfter(Long parentCommentId, String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Comment> slice = cursor == null
+                ? commentRepository.findFirstReplySlice(parentCommentId, pageable)
+                : commentRepository.findReplySliceAfter(parentCommentId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        return toDTOs(slice);
+    }
+
+    /**
+     * 游标分页获取用户的评论（最新在前）
+     */
+    @Transactional(readOnly = true)
+    public Slice<CommentDTO> getCommentsByUserAfter(Long userId, String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Comment> slice = cursor == null
+                ? commentRepository.findFirstSliceByAuthor(userId, pageable)
+                : commentRepository.findSliceByAuthorAfter(userId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        return toDTOs(slice);
+    }
+
+    private Slice<CommentDTO> toDTOs(Slice<Comment> slice) {
+        Map<Long, AuthorSummary> authors = resolveAuthors(slice.getContent());
+        return slice.map(comment -> CommentDTO.fromEntity(comment, authors.get(comment.getAuthor().getId())));
+    }
+
+    // 评论树行只带作者 id，批量回填用户名、昵称、头像
+    private void fillAuthors(List<CommentResponse> rows) {
+        Map<Long, AuthorSummary> authors = commentAuthorCache.getAll(
+                rows.stream().map(row -> row.getAuthor().getId()).collect(Collectors.toSet()));
+        for (CommentResponse row : rows) {
+            AuthorSummary author = authors.get(row.getAuthor().getId());
+            if (author != null) {
+                row.setAuthor(CommentResponse.CommentAuthor.from(author));
+            }
+        }
+    }
+
+    // 作者 id 取自代理对象，不触发 User 加载
+    private Map<Long, AuthorSummary> resolveAuthors(List<Comment> comments) {
+        return commentAuthorCache.getAll(comments.stream()
+                .map(comment -> comment.getAuthor().getId())
+                .collect(Collectors.toSet()));
+    }
+}
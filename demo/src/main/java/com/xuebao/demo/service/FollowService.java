@@ -0,0 +1,69 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.dto.response.FollowStatus;
+import com.xuebao.demo.repository.UserFollowRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.feed.FeedService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Objects;
+
+/**
+ * 关注关系
+ * 关系写入 user_follows（唯一约束保证幂等），状态实际变化时在同一事务内调整双方的 follower_count / following_count，
+ * 并同步关注动态（关注时补入作者最近的文章，取消关注时移除）
+ */
+@Service
+public class FollowService {
+
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final FeedService feedService;
+
+    public FollowService(UserFollowRepository userFollowRepository,
+                         UserRepository userRepository,
+                         FeedService feedService) {
+        this.userFollowRepository = userFollowRepository;
+        this.userRepository = userRepository;
+        this.feedService = feedService;
+    }
+
+    /**
+     * 关注用户（重复关注不报错，也不重复计数）
+     */
+    @Transactional
+    public FollowStatus follow(Long followerId, Long followeeId) {
+        if (Objects.equals(followerId, followeeId)) {
+            throw new IllegalArgumentException("不能关注自己");
+        }
+        boolean changed;
+        try {
+            changed = userFollowRepository.insertIfAbsent(followerId, followeeId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // 唯一约束冲突已由 ON CONFLICT DO NOTHING 吸收，这里只会是外键不存在
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在");
+        }
+        if (changed) {
+            userRepository.adjustFollowCounts(followerId, followeeId, 1);
+            feedService.onFollow(followerId, followeeId);
+        }
+        return new FollowStatus(followeeId, true, changed);
+    }
+
+    /**
+     * 取消关注（未关注时不报错）
+     */
+    @Transactional
+    public FollowStatus unfollow(Long followerId, Long followeeId) {
+        boolean changed = userFollowRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) > 0;
+        if (changed) {
+            userRepository.adjustFollowCounts(followerId, followeeId, -1);
+            feedService.onUnfollow(followerId, followeeId);
+        }
+        return new FollowStatus(followeeId, false, changed);
+    }
+}
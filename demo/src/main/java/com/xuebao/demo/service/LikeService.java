@@ -0,0 +1,205 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.dto.response.LikeStatus;
+import com.xuebao.demo.repository.CommentLikeRepository;
+import com.xuebao.demo.repository.CounterBatchRepository;
+import com.xuebao.demo.repository.CounterBatchRepository.CounterColumn;
+import com.xuebao.demo.repository.PostLikeRepository;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import com.xuebao.demo.service.trending.TrendingService;
+import com.xuebao.demo.util.DeltaCounter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * 文章/评论点赞
+ * 点赞关系写入 post_likes / comment_likes（唯一约束保证幂等），
+ * like_count 不在请求内更新，而是在内存中按 id 累加增量，由定时任务批量写回，
+ * 热门文章被大量并发点赞时不会争抢 posts 表同一行的行锁；
+ * 文章详情缓存在写回后按 id 失效，详情与 ETag 中的点赞数最多滞后一个写回周期
+ */
+@Service
+public class LikeService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeService.class);
+
+    // 批量查询点赞状态时单次最多的 id 数
+    public static final int MAX_LOOKUP_IDS = 200;
+
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final CounterBatchRepository counterBatchRepository;
+    private final TrendingService trendingService;
+    private final PostDetailCache postDetailCache;
+
+    private final DeltaCounter postLikes = new DeltaCounter();
+    private final DeltaCounter commentLikes = new DeltaCounter();
+
+    public LikeService(PostLikeRepository postLikeRepository,
+                       CommentLikeRepository commentLikeRepository,
+                       CounterBatchRepository counterBatchRepository,
+                       TrendingService trendingService,
+                       PostDetailCache postDetailCache) {
+        this.postLikeRepository = postLikeRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.counterBatchRepository = counterBatchRepository;
+        this.trendingService = trendingService;
+        this.postDetailCache = postDetailCache;
+    }
+
+    /**
+     * 点赞文章（重复点赞不报错，也不重复计数）
+     */
+    public LikeStatus likePost(Long userId, Long postId) {
+        boolean changed = insertLike(() -> postLikeRepository.insertIfAbsent(userId, postId), "文章不存在");
+        if (changed) {
+            postLikes.increment(postId);
+            trendingService.recordLike(postId, 1);
+        }
+        return new LikeStatus(postId, true, changed);
+    }
+
+    /**
+     * 取消点赞文章（未点赞时不报错）
+     */
+    public LikeStatus unlikePost(Long userId, Long postId) {
+        boolean changed = postLikeRepository.deleteByUserIdAndPostId(userId, postId) > 0;
+        if (changed) {
+            postLikes.add(postId, -1);
+            trendingService.recordLike(postId, -1);
+        }
+        return new LikeStatus(postId, false, changed);
+    }
+
+    /**
+     * 点赞评论
+     */
+    public LikeStatus likeComment(Long userId, Long commentId) {
+        boolean changed = insertLike(() -> commentLikeRepository.insertIfAbsent(userId, commentId), "评论不存在");
+        if (changed) {
+            commentLikes.increment(commentId);
+        }
+        return new LikeStatus(commentId, true, changed);
+    }
+
+    /**
+     * 取消点赞评论
+     */
+    public LikeStatus unlikeComment(Long userId, Long commentId) {
+        boolean changed = commentLikeRepository.deleteByUserIdAndCommentId(userId, commentId) > 0;
+        if (changed) {
+            commentLikes.add(commentId, -1);
+        }
+        return new LikeStatus(commentId, false, changed);
+    }
+
+    /**
+     * 批量查询用户是否点赞过这些文章（一条 IN 查询），按传入顺序返回 id -> 是否点赞
+     */
+    public Map<Long, Boolean> getPostLikeStates(Long userId, Collection<Long> postIds) {
+        checkLookupSize(postIds);
+        if (postIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return toStates(postIds, postLikeRepository.findLikedPostIds(userId, postIds));
+    }
+
+    /**
+     * 批量查询用户是否点赞过这些评论
+     */
+    public Map<Long, Boolean> getCommentLikeStates(Long userId, Collection<Long> commentIds) {
+        checkLookupSize(commentIds);
+        if (commentIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return toStates(commentIds, commentLikeRepository.findLikedCommentIds(userId, commentIds));
+    }
+
+    /**
+     * 尚未写回数据库的文章点赞增量
+     */
+    public long getPendingPostLikes(Long postId) {
+        return postLikes.pending(postId);
+    }
+
+    /**
+     * 尚未写回数据库的评论点赞增量
+     */
+    public long getPendingCommentLikes(Long commentId) {
+        return commentLikes.pending(commentId);
+    }
+
+    /**
+     * 批量写回点赞数增量，写回成功的文章失效详情缓存
+     */
+    @Scheduled(fixedDelayString = "${blog.like-count.flush-interval-ms:2000}")
+    public void flush() {
+        flush(postLikes, CounterColumn.POST_LIKE_COUNT).keySet().forEach(postDetailCache::evict);
+        flush(commentLikes, CounterColumn.COMMENT_LIKE_COUNT);
+    }
+
+    /**
+     * 应用关闭时写回剩余增量
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 写回一类计数的增量，返回已写回的部分（失败时为空）
+     */
+    private Map<Long, Long> flush(DeltaCounter counter, CounterColumn column) {
+        Map<Long, Long> deltas = counter.drain();
+        if (deltas.isEmpty()) {
+            return deltas;
+        }
+        try {
+            counterBatchRepository.applyDeltas(column, deltas);
+            return deltas;
+        } catch (RuntimeException e) {
+            // 写回失败时放回内存，下个周期重试
+            counter.restore(deltas);
+            log.warn("点赞数写回失败（{}），{} 条增量将在下次重试", column, deltas.size(), e);
+            return Map.of();
+        }
+    }
+
+    private static boolean insertLike(IntSupplier insert, String notFoundMessage) {
+        try {
+            return insert.getAsInt() > 0;
+        } catch (DataIntegrityViolationException e) {
+            // 唯一约束冲突已由 ON CONFLICT DO NOTHING 吸收，这里只会是外键不存在
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage);
+        }
+    }
+
+    private static void checkLookupSize(Collection<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("单次最多查询 " + MAX_LOOKUP_IDS + " 个 id");
+        }
+    }
+
+    private static Map<Long, Boolean> toStates(Collection<Long> ids, List<Long> likedIds) {
+        Set<Long> liked = new HashSet<>(likedIds);
+        Map<Long, Boolean> states = new LinkedHashMap<>();
+        for (Long id : ids) {
+            states.put(id, liked.contains(id));
+        }
+        return states;
+    }
+}
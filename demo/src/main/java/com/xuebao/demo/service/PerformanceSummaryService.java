@@ -0,0 +1,150 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.service.cache.PostDetailCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内性能摘要（/api/admin/perf），直接读取 MeterRegistry，不依赖外部监控系统
+ * 同一分组下有多个计时器（如不同状态码）时：次数相加、均值按次数加权、max 和分位数取最大值（分位数无法精确合并，偏保守）
+ */
+@Service
+public class PerformanceSummaryService {
+
+    private final MeterRegistry meterRegistry;
+    private final PostDetailCache postDetailCache;
+    private final UserPrincipalCache userPrincipalCache;
+
+    public PerformanceSummaryService(MeterRegistry meterRegistry, PostDetailCache postDetailCache,
+                                     UserPrincipalCache userPrincipalCache) {
+        this.meterRegistry = meterRegistry;
+        this.postDetailCache = postDetailCache;
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("http", timers("http.server.requests", "method", "uri"));
+        summary.put("services", timers("blog.service", "class", "method"));
+        summary.put("repositories", timers("spring.data.repository.invocations", "repository", "method"));
+        summary.put("jdbcRepositories", timers("blog.repository", "class", "method"));
+        summary.put("jwtFilter", timers("blog.security.jwt.filter", "outcome"));
+        summary.put("connectionPool", connectionPool());
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        caches.put("postDetail", postDetailCache.getStats());
+        caches.put("userPrincipal", userPrincipalCache.getStats());
+        summary.put("caches", caches);
+        return summary;
+    }
+
+    private List<TimerSummary> timers(String name, String... groupBy) {
+        Map<String, TimerSummary> groups = new LinkedHashMap<>();
+        for (Timer timer : meterRegistry.find(name).timers()) {
+            StringJoiner key = new StringJoiner(" ");
+            for (String tag : groupBy) {
+                String value = timer.getId().getTag(tag);
+                key.add(value == null ? "-" : value);
+            }
+            groups.computeIfAbsent(key.toString(), TimerSummary::new).add(timer.takeSnapshot());
+        }
+        List<TimerSummary> result = new ArrayList<>(groups.values());
+        result.sort(Comparator.comparingDouble(TimerSummary::getTotalMillis).reversed());
+        return result;
+    }
+
+    private Map<String, Object> connectionPool() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        gauge(pool, "active", "hikaricp.connections.active");
+        gauge(pool, "idle", "hikaricp.connections.idle");
+        gauge(pool, "pending", "hikaricp.connections.pending");
+        gauge(pool, "max", "hikaricp.connections.max");
+        gauge(pool, "limiterAvailable", "blog.db.limiter.available");
+        gauge(pool, "limiterWaiting", "blog.db.limiter.waiting");
+        List<TimerSummary> acquire = timers("hikaricp.connections.acquire");
+        if (!acquire.isEmpty()) {
+            pool.put("acquire", acquire.get(0));
+        }
+        List<TimerSummary> usage = timers("hikaricp.connections.usage");
+        if (!usage.isEmpty()) {
+            pool.put("usage", usage.get(0));
+        }
+        return pool;
+    }
+
+    private void gauge(Map<String, Object> target, String key, String name) {
+        double total = 0;
+        boolean found = false;
+        for (Meter meter : meterRegistry.find(name).meters()) {
+            if (meter instanceof Gauge gauge) {
+                total += gauge.value();
+                found = true;
+            }
+        }
+        if (found) {
+            target.put(key, total);
+        }
+    }
+
+    /**
+     * 一组计时器的汇总（毫秒）
+     */
+    public static class TimerSummary {
+        private final String name;
+        private long count;
+        private double totalMillis;
+        private double maxMillis;
+        private final Map<String, Double> percentilesMillis = new LinkedHashMap<>();
+
+        TimerSummary(String name) {
+            this.name = name;
+        }
+
+        void add(HistogramSnapshot snapshot) {
+            count += snapshot.count();
+            totalMillis += snapshot.total(TimeUnit.MILLISECONDS);
+            maxMillis = Math.max(maxMillis, snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                String key = "p" + Math.round(percentile.percentile() * 100);
+                percentilesMillis.merge(key, percentile.value(TimeUnit.MILLISECONDS), Math::max);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public Map<String, Double> getPercentilesMillis() {
+            return percentilesMillis;
+        }
+    }
+}
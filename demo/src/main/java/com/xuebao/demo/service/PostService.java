@@ -1,29 +1,53 @@
 package com.xuebao.demo.service;
 
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.dto.response.ResourceVersion;
 import com.xuebao.demo.entity.Post;
 import com.xuebao.demo.entity.User;
 import com.xuebao.demo.enums.PostStatus;
 import com.xuebao.demo.repository.PostRepository;
 import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import com.xuebao.demo.service.feed.FeedService;
+import com.xuebao.demo.service.search.PostSearchService;
+import com.xuebao.demo.service.trending.TrendingService;
+import com.xuebao.demo.util.CursorUtil;
+import com.xuebao.demo.util.TransactionUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("blog.service")
 public class PostService {
     private final PostRepository postRepository;
+    private final PostSearchService postSearchService;
+    private final PostDetailCache postDetailCache;
+    private final TrendingService trendingService;
+    private final FeedService feedService;
     @Autowired
     private UserRepository userRepository;
 
-    public PostService(PostRepository postRepository) {
+    public PostService(PostRepository postRepository, PostSearchService postSearchService,
+                       PostDetailCache postDetailCache, TrendingService trendingService,
+                       FeedService feedService) {
         this.postRepository = postRepository;
+        this.postSearchService = postSearchService;
+        this.postDetailCache = postDetailCache;
+        this.trendingService = trendingService;
+        this.feedService = feedService;
     }
 
     @Transactional // 确保方法在事务中执行
@@ -32,7 +56,7 @@ public class PostService {
 
         // 如果post有ID，说明是更新操作，需要先查询再合并字段，防止数据覆盖
         if (post.getId() != null) {
-            Post existingPost = postRepository.findById(post.getId())
+            Post existingPost = postRepository.findWithAuthorById(post.getId())
                     .orElseThrow(() -> new RuntimeException("文章不存在，id: " + post.getId()));
 
             // 只更新允许修改的字段，避免覆盖不该改的数据
@@ -42,16 +66,30 @@ public class PostService {
             if (post.getContent() != null) {
                 existingPost.setContent(post.getContent());
             }
+            if (post.getSummary() != null) {
+                existingPost.setSummary(post.getSummary());
+            }
             // ... 合并其他需要更新的字段
 
             // 确保更新时间戳也被设置
             existingPost.setUpdatedAt(LocalDateTime.now());
 
-            return postRepository.save(existingPost); // 此时保存的是从数据库查出的完整实体
+            Post savedPost = postRepository.save(existingPost); // 此时保存的是从数据库查出的完整实体
+            TransactionUtil.afterCommit(() -> {
+                postDetailCache.evict(savedPost.getId());
+                postSearchService.index(savedPost);
+            });
+            return savedPost;
         } else {
             // 新增操作，设置创建时间等初始信息
             post.setCreatedAt(LocalDateTime.now());
-            return postRepository.save(post);
+            Post savedPost = postRepository.save(post);
+            // 提交后同步检索索引，已发布的文章写入粉丝的关注动态
+            TransactionUtil.afterCommit(() -> {
+                postSearchService.index(savedPost);
+                feedService.onPublished(savedPost);
+            });
+            return savedPost;
         }
     }
     private User getDefaultAuthor() {
@@ -86,6 +124,9 @@ public class PostService {
     public void deletePost(Long id) {
         if (postRepository.existsById(id)) {
             postRepository.deleteById(id);
+            postDetailCache.evict(id);
+            postSearchService.remove(id);
+            trendingService.remove(id);
         }
     }
 
@@ -95,19 +136,40 @@ public class PostService {
             throw new IllegalArgumentException("文章不存在，id: " + id);
         }
         postRepository.deleteById(id);
+        postDetailCache.evict(id);
+        postSearchService.remove(id);
+        trendingService.remove(id);
     }
 
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    /**
+     * 流式遍历全部文章摘要（不含正文）：在只读事务内按 fetch size 分批读取，消费方逐条处理，不在内存中物化整个列表
+     * 摘要是 DTO 投影，不进入持久化上下文，内存占用与表大小无关
+     */
+    @Transactional(readOnly = true)
+    public void streamAllPosts(Consumer<Stream<PostSummary>> consumer) {
+        try (Stream<PostSummary> summaries = postRepository.streamAllSummaries()) {
+            consumer.accept(summaries);
+        }
     }
 
+    /**
+     * 获取文章详情（经 PostDetailCache 读穿缓存，返回的实体只读）
+     */
     public Optional<Post> getPostById(Long id) {
-        return postRepository.findById(id);
+        return Optional.ofNullable(postDetailCache.get(id));
+    }
+
+    /**
+     * 文章详情的版本（条件请求用）：详情已缓存时直接按缓存内容计算，不查库；否则只查版本列。文章不存在时返回 null
+     */
+    public ResourceVersion getPostVersion(Long id) {
+        Post cached = postDetailCache.peek(id);
+        return cached != null ? ResourceVersion.of(cached) : postRepository.findVersionById(id).orElse(null);
     }
 
     // ✅ Optional方式：更安全、更函数式
     public Post updatePost(Long id, Post postDetails) {
-        return postRepository.findById(id)
+        return postRepository.findWithAuthorById(id)
                 .map(existingPost -> {
                     // ✅ 必须添加字段更新逻辑！
                     if (postDetails.getTitle() != null) {
@@ -116,12 +178,18 @@ public class PostService {
                     if (postDetails.getContent() != null) {
                         existingPost.setContent(postDetails.getContent());
                     }
+                    if (postDetails.getSummary() != null) {
+                        existingPost.setSummary(postDetails.getSummary());
+                    }
                     if (postDetails.getAuthor() != null) {
                         existingPost.setAuthor(postDetails.getAuthor());
                     }
 
-                    // 然后保存更新后的文章
-                    return postRepository.save(existingPost);
+                    // 然后保存更新后的文章，并同步检索索引
+                    Post savedPost = postRepository.save(existingPost);
+                    postDetailCache.evict(id);
+                    postSearchService.index(savedPost);
+                    return savedPost;
                 })
                 .orElseThrow(() -> new RuntimeException("文章不存在"));
     }
@@ -136,32 +204,29 @@ public class PostService {
     }
 
     /**
-     * 综合搜索（标题或内容）
+     * 综合搜索（标题或内容），按相关度排序并附带高亮片段
      */
-    public List<Post> comprehensiveSearch(String keyword) {
+    public Page<PostSearchHit> comprehensiveSearch(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            // return postRepository.findAll(); // 或者返回空列表
-            return List.of();
+            return Page.empty(pageable);
         }
-        String trimmedKeyword = keyword.trim();
-        // 注意：这里是 OR 条件，查询标题或内容包含关键词的文章
-        return postRepository.findByTitleContainingOrContentContaining(trimmedKeyword, trimmedKeyword);
+        return postSearchService.search(keyword.trim(), pageable);
     }
     /**
      * 分页搜索（标题或内容）
      */
-    public Page<Post> searchPostsWithPagination(String keyword, Pageable pageable) {
-        return postRepository.findByTitleContaining(keyword, pageable);
+    public Page<PostSummary> searchPostsWithPagination(String keyword, Pageable pageable) {
+        return postRepository.findSummariesByTitleContaining(keyword, pageable);
     }
-    public Page<Post> getAllPostsPaged(Pageable pageable) {
-        return postRepository.findAll(pageable);
+    public Page<PostSummary> getAllPostsPaged(Pageable pageable) {
+        return postRepository.findSummaries(pageable);
     }
 
     /**
      * 根据状态获取文章（分页）
      */
-    public Page<Post> getPostsByStatus(PostStatus status, Pageable pageable) {
-        return postRepository.findByStatus(status, pageable);
+    public Page<PostSummary> getPostsByStatus(PostStatus status, Pageable pageable) {
+        return postRepository.findSummariesByStatus(status, pageable);
     }
 
     /**
@@ -173,13 +238,55 @@ public class PostService {
 
     /**
      * 综合分页查询 - 与您的搜索功能区分开
+     * 有关键词时走全文检索（按相关度排序，忽略 pageable 中的排序字段）
      */
-    public Page<Post> getPostsWithPagination(String keyword, Pageable pageable) {
+    public Page<PostSummary> getPostsWithPagination(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return postRepository.findAll(pageable);
+            return postRepository.findSummaries(pageable);
+        }
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return postSearchService.search(keyword.trim(), unsorted).map(hit -> hit);
+    }
+
+    /**
+     * 游标分页获取文章（keyset 分页，无 COUNT 查询）
+     * @param after 上一页返回的游标，为空表示第一页
+     */
+    public Slice<PostSummary> getPostsAfter(String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        if (cursor == null) {
+            return postRepository.findFirstSlice(pageable);
         }
-        return postRepository.findByTitleContainingOrContentContaining(keyword,keyword,pageable);
+        return postRepository.findSliceAfter(cursor.getCreatedAt(), cursor.getId(), pageable);
     }
 
+    /**
+     * 根据状态游标分页获取文章
+     */
+    public Slice<PostSummary> getPostsByStatusAfter(PostStatus status, String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        if (cursor == null) {
+            return postRepository.findFirstSliceByStatus(status, pageable);
+        }
+        return postRepository.findSliceByStatusAfter(status, cursor.getCreatedAt(), cursor.getId(), pageable);
+    }
 
-}
\ No newline at end of file
+    /**
+     * 条件游标分页查询（关键词为空时等同于 getPostsAfter）
+     * 游标模式下关键词只匹配标题，按时间倒序；需要正文检索和相关度排序时使用 comprehensiveSearch
+     */
+    public Slice<PostSummary> getPostsWithCursor(String keyword, String after, int size) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return getPostsAfter(after, size);
+        }
+        String trimmedKeyword = keyword.trim();
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        Pageable pageable = PageRequest.of(0, size);
+        if (cursor == null) {
+            return postRepository.findFirstSliceByKeyword(trimmedKeyword, pageable);
+        }
+        return postRepository.findSliceByKeywordAfter(trimmedKeyword, cursor.getCreatedAt(), cursor.getId(), pageable);
+    }
+}
@@ -0,0 +1,43 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * 认证后的用户主体：在 Spring Security 的 User 之上带上用户 id
+ * 由 CustomUserDetailsService 构造，JWT 过滤器从缓存或令牌声明中还原；
+ * 控制器通过 @AuthenticationPrincipal 直接取 id，写接口不再按用户名查库
+ */
+public class UserPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String username, String password, boolean enabled,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 只带 id 和用户名的 User，用作新建文章/评论的作者关联（外键只需要 id），不是完整实体
+     */
+    public User toUserReference() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(getUsername());
+        return user;
+    }
+
+    /**
+     * 去掉密码的副本（用于缓存）
+     */
+    public UserPrincipal withoutPassword() {
+        return new UserPrincipal(id, getUsername(), "", isEnabled(), getAuthorities());
+    }
+}
@@ -0,0 +1,106 @@
+package com.xuebao.demo.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xuebao.demo.util.CacheLoadUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JWT 过滤器使用的 UserPrincipal 缓存（按用户名，条目数有上限，写入后 TTL 过期）
+ * 缓存的是去掉密码的副本（含用户 id）；用户被禁用或角色变更时由 UserService 在事务提交后调用 evict，
+ * 其余情况下最多在 TTL 内使用旧的权限信息
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final AsyncCache<String, UserPrincipal> cache;
+
+    private final LongAdder databaseLookups = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder claimsAuthentications = new LongAdder();
+
+    public UserPrincipalCache(CustomUserDetailsService userDetailsService,
+                              @Value("${blog.security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${blog.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    /**
+     * 获取用户详情，未命中时查库；用户不存在时抛出 UsernameNotFoundException（不缓存）
+     */
+    public UserPrincipal get(String username) {
+        UserPrincipal cached = cache.synchronous().getIfPresent(username);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        // 查库在 compute 锁外进行，见 CacheLoadUtil
+        return CacheLoadUtil.getOrLoad(cache, username, this::load);
+    }
+
+    public void evict(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    /**
+     * 记录一次直接信任令牌声明、未查库的认证
+     */
+    public void recordClaimsAuthentication() {
+        claimsAuthentications.increment();
+    }
+
+    public Stats getStats() {
+        return new Stats(databaseLookups.sum(), cacheHits.sum(), claimsAuthentications.sum(), cache.synchronous().estimatedSize());
+    }
+
+    private UserPrincipal load(String username) {
+        databaseLookups.increment();
+        return userDetailsService.loadUserByUsername(username).withoutPassword();
+    }
+
+    /**
+     * 统计快照：avoidedLookups = 缓存命中 + 信任声明的认证次数
+     */
+    public static class Stats {
+        private final long databaseLookups;
+        private final long cacheHits;
+        private final long claimsAuthentications;
+        private final long size;
+
+        Stats(long databaseLookups, long cacheHits, long claimsAuthentications, long size) {
+            this.databaseLookups = databaseLookups;
+            this.cacheHits = cacheHits;
+            this.claimsAuthentications = claimsAuthentications;
+            this.size = size;
+        }
+
+        public long getDatabaseLookups() {
+            return databaseLookups;
+        }
+
+        public long getCacheHits() {
+            return cacheHits;
+        }
+
+        public long getClaimsAuthentications() {
+            return claimsAuthentications;
+        }
+
+        public long getAvoidedLookups() {
+            return cacheHits + claimsAuthentications;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
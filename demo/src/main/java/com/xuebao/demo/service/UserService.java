@@ -8,12 +8,14 @@ import com.xuebao.demo.dto.response.UserProfileDto;
 import com.xuebao.demo.entity.User;
 import com.xuebao.demo.enums.Role;
 import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.util.TransactionUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
 
@@ -26,9 +28,13 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final UserPrincipalCache userPrincipalCache;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UserPrincipalCache userPrincipalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     /**
@@ -98,4 +104,31 @@ public class UserService {
     public Optional<User>findByUsername(String currentUsername) {
         return userRepository.findByUsername(currentUsername);
     }
+
+    /**
+     * 修改用户角色（管理员接口 AdminUserController），提交后失效 JWT 过滤器中的用户详情缓存
+     */
+    @Transactional
+    public User changeRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在: " + userId));
+        user.setRole(role);
+        String username = user.getUsername();
+        TransactionUtil.afterCommit(() -> userPrincipalCache.evict(username));
+        return user;
+    }
+
+    /**
+     * 启用/禁用用户（管理员接口 AdminUserController），提交后失效 JWT 过滤器中的用户详情缓存，
+     * 被禁用的用户下一次请求即返回 401
+     */
+    @Transactional
+    public User setEnabled(Long userId, boolean enabled) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在: " + userId));
+        user.setEnabled(enabled);
+        String username = user.getUsername();
+        TransactionUtil.afterCommit(() -> userPrincipalCache.evict(username));
+        return user;
+    }
 }
\ No newline at end of file
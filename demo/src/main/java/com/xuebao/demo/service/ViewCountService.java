@@ -0,0 +1,74 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.repository.CounterBatchRepository;
+import com.xuebao.demo.repository.CounterBatchRepository.CounterColumn;
+import com.xuebao.demo.service.trending.TrendingService;
+import com.xuebao.demo.util.DeltaCounter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * 文章浏览量统计（write-behind）
+ * 读路径只在内存中累加，定时任务每隔几秒用一条批量 UPDATE 写回 posts.view_count，关闭时再写回一次
+ * 进程异常退出时最多丢失一个刷新周期内的浏览量
+ */
+@Service
+public class ViewCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewCountService.class);
+
+    private final DeltaCounter views = new DeltaCounter();
+    private final CounterBatchRepository counterBatchRepository;
+    private final TrendingService trendingService;
+
+    public ViewCountService(CounterBatchRepository counterBatchRepository, TrendingService trendingService) {
+        this.counterBatchRepository = counterBatchRepository;
+        this.trendingService = trendingService;
+    }
+
+    /**
+     * 记录一次浏览（不访问数据库），同时计入热度榜
+     */
+    public void recordView(Long postId) {
+        views.increment(postId);
+        trendingService.recordView(postId);
+    }
+
+    /**
+     * 尚未写回数据库的浏览量
+     */
+    public long getPendingViews(Long postId) {
+        return views.pending(postId);
+    }
+
+    /**
+     * 批量写回累计的浏览量
+     */
+    @Scheduled(fixedDelayString = "${blog.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = views.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            counterBatchRepository.applyDeltas(CounterColumn.POST_VIEW_COUNT, deltas);
+        } catch (RuntimeException e) {
+            // 写回失败时放回内存，下个周期重试
+            views.restore(deltas);
+            log.warn("浏览量写回失败，{} 篇文章的增量将在下次重试", deltas.size(), e);
+        }
+    }
+
+    /**
+     * 应用关闭时写回剩余增量
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,121 @@
+package com.xuebao.demo.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.xuebao.demo.dto.response.AuthorSummary;
+import com.xuebao.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 评论作者摘要缓存（按用户 id，条目数有上限，写入后 TTL 过期）
+ * 评论列表/评论树先只取 author_id，再由 getAll 一次性解析整批作者：
+ * 命中的直接返回，未命中的合并为一条 WHERE id IN (...) 查询并回填，语句数与评论条数、作者人数无关。
+ * 昵称、头像变更不主动失效，最多在 TTL 内展示旧值
+ */
+@Component
+public class CommentAuthorCache {
+
+    // 单条 IN 查询的 id 上限，超过时分批（一次展示几百位不同作者已属极端情况）
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, AuthorSummary> cache;
+
+    public CommentAuthorCache(UserRepository userRepository,
+                              @Value("${blog.cache.comment-author.max-size:20000}") long maxSize,
+                              @Value("${blog.cache.comment-author.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 批量获取作者摘要，返回 id → 摘要；不存在的用户不出现在结果中（不做空值缓存）
+     * 未命中的 id 在调用线程中直接查库，不经过 Caffeine 的 compute 锁（见 CacheLoadUtil 的说明）；
+     * 并发请求同时未命中同一作者时可能各查一次，结果相同，后写入的覆盖先写入的
+     */
+    public Map<Long, AuthorSummary> getAll(Collection<Long> authorIds) {
+        Set<Long> ids = new LinkedHashSet<>(authorIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, AuthorSummary> result = new HashMap<>(cache.getAllPresent(ids));
+        if (result.size() == ids.size()) {
+            return result;
+        }
+        List<Long> missing = new ArrayList<>(ids.size() - result.size());
+        for (Long id : ids) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> batch = missing.subList(from, Math.min(from + MAX_IDS_PER_QUERY, missing.size()));
+            for (AuthorSummary author : userRepository.findAuthorSummariesByIdIn(batch)) {
+                result.put(author.getId(), author);
+                cache.put(author.getId(), author);
+            }
+        }
+        return result;
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public Stats getStats() {
+        return new Stats(cache.stats(), cache.estimatedSize());
+    }
+
+    /**
+     * 缓存统计快照；getAllPresent 按 id 计入命中/未命中
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final double hitRate;
+        private final long estimatedSize;
+
+        Stats(CacheStats stats, long estimatedSize) {
+            this.hitCount = stats.hitCount();
+            this.missCount = stats.missCount();
+            this.hitRate = stats.hitRate();
+            this.estimatedSize = estimatedSize;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.xuebao.demo.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xuebao.demo.entity.Post;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 二级缓存的本地替身：条目数有上限、过期时间比一级缓存长
+ * 用于在没有共享缓存的环境下保持与生产一致的两级读取路径
+ */
+@Component
+@ConditionalOnProperty(name = "blog.cache.post-detail.l2", havingValue = "local", matchIfMissing = true)
+public class LocalPostDetailSecondLevelCache implements PostDetailSecondLevelCache {
+
+    private final Cache<Long, Post> cache;
+
+    public LocalPostDetailSecondLevelCache(
+            @Value("${blog.cache.post-detail.l2-max-entries:10000}") long maxEntries,
+            @Value("${blog.cache.post-detail.l2-expire-after-write:30m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @Override
+    public Post get(Long postId) {
+        return cache.getIfPresent(postId);
+    }
+
+    @Override
+    public void put(Long postId, Post post) {
+        cache.put(postId, post);
+    }
+
+    @Override
+    public void evict(Long postId) {
+        cache.invalidate(postId);
+    }
+}
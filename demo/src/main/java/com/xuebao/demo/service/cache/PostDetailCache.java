@@ -0,0 +1,191 @@
+package com.xuebao.demo.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.util.CacheLoadUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章详情读穿（read-through）缓存
+ * L1：Caffeine（W-TinyLFU 淘汰），按文章文本长度估算权重，总权重有上限；
+ * L2：可插拔的 PostDetailSecondLevelCache；两级都未命中时查库并回填。
+ * 同一 id 的并发未命中合并为一次加载（其他线程等待结果），热点文章缓存击穿时只查一次库；
+ * 加载在 Caffeine 的 compute 锁外执行（见 CacheLoadUtil），虚拟线程查库时不会被钉住。
+ * 缓存的是带作者的游离实体，调用方只读，不要修改；修改文章后由 PostService 在事务提交后调用 evict。
+ */
+@Component
+public class PostDetailCache {
+
+    // 每个条目除文本外的固定开销估算（字节）
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final PostRepository postRepository;
+    private final PostDetailSecondLevelCache secondLevel;
+    private final AsyncCache<Long, Post> cache;
+
+    private final LongAdder secondLevelHits = new LongAdder();
+    private final LongAdder secondLevelMisses = new LongAdder();
+
+    public PostDetailCache(PostRepository postRepository,
+                           Optional<PostDetailSecondLevelCache> secondLevel,
+                           @Value("${blog.cache.post-detail.max-weight-bytes:67108864}") long maxWeightBytes,
+                           @Value("${blog.cache.post-detail.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.postRepository = postRepository;
+        this.secondLevel = secondLevel.orElse(null);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, Post post) -> weigh(post))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * 获取文章详情（含作者），文章不存在时返回 null（不做空值缓存）
+     */
+    public Post get(Long postId) {
+        return CacheLoadUtil.getOrLoad(cache, postId, this::load);
+    }
+
+    /**
+     * 只查 L1/L2，不触发加载（也不计入命中统计）；未缓存时返回 null
+     * 条件请求据此比对版本，结果与完整 GET 将返回的内容一致
+     */
+    public Post peek(Long postId) {
+        CompletableFuture<Post> future = cache.getIfPresent(postId);
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            return future.join();
+        }
+        return secondLevel != null ? secondLevel.get(postId) : null;
+    }
+
+    /**
+     * 精确失效：先失效 L1（同时丢弃同 id 正在进行的加载），再失效 L2；
+     * 被丢弃的加载不会再写回 L2（见 load）
+     */
+    public void evict(Long postId) {
+        cache.synchronous().invalidate(postId);
+        if (secondLevel != null) {
+            secondLevel.evict(postId);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(cache.synchronous().stats(), cache.synchronous().estimatedSize(),
+                cache.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L),
+                secondLevelHits.sum(), secondLevelMisses.sum());
+    }
+
+    private Post load(Long postId) {
+        if (secondLevel != null) {
+            Post cached = secondLevel.get(postId);
+            if (cached != null) {
+                secondLevelHits.increment();
+                return cached;
+            }
+            secondLevelMisses.increment();
+        }
+        CompletableFuture<Post> pending = cache.asMap().get(postId);
+        Post post = postRepository.findWithAuthorById(postId).orElse(null);
+        // 加载期间被 evict 的结果只返回给本次调用方，不写回 L2
+        if (post != null && secondLevel != null && pending != null && pending == cache.asMap().get(postId)) {
+            secondLevel.put(postId, post);
+        }
+        return post;
+    }
+
+    private static int weigh(Post post) {
+        long chars = length(post.getTitle()) + length(post.getContent())
+                + length(post.getSummary()) + length(post.getKeywords());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + chars * 2);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * 缓存统计快照（命中/未命中/淘汰等）
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final double hitRate;
+        private final long loadCount;
+        private final double averageLoadPenaltyMillis;
+        private final long evictionCount;
+        private final long evictionWeight;
+        private final long estimatedSize;
+        private final long weightedSize;
+        private final long secondLevelHitCount;
+        private final long secondLevelMissCount;
+
+        Stats(CacheStats stats, long estimatedSize, long weightedSize,
+              long secondLevelHitCount, long secondLevelMissCount) {
+            this.hitCount = stats.hitCount();
+            this.missCount = stats.missCount();
+            this.hitRate = stats.hitRate();
+            this.loadCount = stats.loadCount();
+            this.averageLoadPenaltyMillis = stats.averageLoadPenalty() / 1_000_000.0;
+            this.evictionCount = stats.evictionCount();
+            this.evictionWeight = stats.evictionWeight();
+            this.estimatedSize = estimatedSize;
+            this.weightedSize = weightedSize;
+            this.secondLevelHitCount = secondLevelHitCount;
+            this.secondLevelMissCount = secondLevelMissCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        public double getAverageLoadPenaltyMillis() {
+            return averageLoadPenaltyMillis;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getEvictionWeight() {
+            return evictionWeight;
+        }
+
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        public long getWeightedSize() {
+            return weightedSize;
+        }
+
+        public long getSecondLevelHitCount() {
+            return secondLevelHitCount;
+        }
+
+        public long getSecondLevelMissCount() {
+            return secondLevelMissCount;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.xuebao.demo.service.cache;
+
+import com.xuebao.demo.entity.Post;
+
+/**
+ * 文章详情的二级缓存（L2）
+ * 默认实现为进程内的 LocalPostDetailSecondLevelCache；多实例部署时可替换为 Redis 等共享缓存，
+ * 通过 blog.cache.post-detail.l2 选择实现，设为 none 时只使用一级缓存
+ */
+public interface PostDetailSecondLevelCache {
+
+    /**
+     * 读取缓存，不存在时返回 null
+     */
+    Post get(Long postId);
+
+    void put(Long postId, Post post);
+
+    void evict(Long postId);
+}
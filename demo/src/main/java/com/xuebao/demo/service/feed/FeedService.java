@@ -0,0 +1,209 @@
+package com.xuebao.demo.service.feed;
+
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.repository.FeedItemRepository;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.util.CursorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 关注动态
+ * 写扩散：作者发布文章后，一条 INSERT ... SELECT 把文章写入每个粉丝的 feed_items，
+ * 读取是按用户 id 的一次索引区间查询（同时关联出文章摘要），不在读时对 posts 做关注关系的 IN/JOIN。
+ * 粉丝数达到阈值的作者（大 V）不做写扩散，读取时额外用一条查询拉取当前用户关注的大 V 的文章并按时间归并；
+ * 大 V 名单在内存中定期刷新，没有大 V 时读取只有一条语句；作者跌出名单时把其最近的文章补写给粉丝。
+ * 每个用户保留最近 max-items 条，超出部分由定时任务按用户 id 区间分批裁剪
+ */
+@Service
+public class FeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedService.class);
+
+    // 单页最大条数
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<PostSummary> NEWEST_FIRST = Comparator
+            .comparing(PostSummary::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostSummary::getId, Comparator.reverseOrder());
+
+    private final FeedItemRepository feedItemRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final int celebrityThreshold;
+    private final int maxItems;
+    private final int followBackfill;
+    private final int trimBatchSize;
+
+    private volatile Set<Long> celebrityIds = Set.of();
+
+    public FeedService(FeedItemRepository feedItemRepository,
+                       PostRepository postRepository,
+                       UserRepository userRepository,
+                       @Value("${blog.feed.celebrity-follower-threshold:10000}") int celebrityThreshold,
+                       @Value("${blog.feed.max-items:500}") int maxItems,
+                       @Value("${blog.feed.follow-backfill:20}") int followBackfill,
+                       @Value("${blog.feed.trim-batch-size:1000}") int trimBatchSize) {
+        this.feedItemRepository = feedItemRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.celebrityThreshold = celebrityThreshold;
+        this.maxItems = Math.max(1, maxItems);
+        this.followBackfill = Math.max(0, followBackfill);
+        this.trimBatchSize = Math.max(1, trimBatchSize);
+    }
+
+    /**
+     * 文章发布后写扩散（在事务提交后调用）；草稿和大 V 的文章不写入，失败只记录日志，不影响发布
+     */
+    public void onPublished(Post post) {
+        if (post.getStatus() != PostStatus.PUBLISHED || post.getAuthor() == null) {
+            return;
+        }
+        Long authorId = post.getAuthor().getId();
+        if (isCelebrity(authorId)) {
+            return;
+        }
+        try {
+            feedItemRepository.fanOut(post.getId(), authorId, post.getCreatedAt());
+        } catch (RuntimeException e) {
+            log.warn("文章 {} 写入粉丝动态失败", post.getId(), e);
+        }
+    }
+
+    /**
+     * 新关注非大 V 作者时补入其最近的文章（大 V 的文章在读取时拉取）
+     */
+    public void onFollow(Long followerId, Long authorId) {
+        if (followBackfill > 0 && !isCelebrity(authorId)) {
+            feedItemRepository.backfill(followerId, authorId, followBackfill);
+        }
+    }
+
+    /**
+     * 取消关注时移除该作者的动态
+     */
+    public void onUnfollow(Long followerId, Long authorId) {
+        feedItemRepository.deleteByUserIdAndAuthorId(followerId, authorId);
+    }
+
+    /**
+     * 游标分页读取关注动态（按发布时间倒序）
+     * @param after 上一页返回的游标，为空表示第一页
+     */
+    public Slice<PostSummary> getFeed(Long userId, String after, int size) {
+        CursorUtil.Cursor cursor = CursorUtil.decode(after);
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(0, limit);
+
+        Slice<PostSummary> pushed = cursor == null
+                ? feedItemRepository.findFirstSlice(userId, PostStatus.PUBLISHED, pageable)
+                : feedItemRepository.findSliceAfter(userId, PostStatus.PUBLISHED, cursor.getCreatedAt(), cursor.getId(), pageable);
+        Set<Long> celebrities = celebrityIds;
+        if (celebrities.isEmpty()) {
+            return pushed;
+        }
+        Slice<PostSummary> pulled = cursor == null
+                ? postRepository.findFirstSliceByFollowedAuthors(userId, celebrities, PostStatus.PUBLISHED, pageable)
+                : postRepository.findSliceByFollowedAuthorsAfter(userId, celebrities, PostStatus.PUBLISHED,
+                        cursor.getCreatedAt(), cursor.getId(), pageable);
+        return merge(pushed, pulled, pageable);
+    }
+
+    public boolean isCelebrity(Long userId) {
+        return celebrityIds.contains(userId);
+    }
+
+    /**
+     * 刷新大 V 名单；名单变化前已写扩散的文章会与读时拉取的结果按 id 去重
+     * 跌出名单的作者在大 V 期间发布的文章没有写扩散，不再拉取后会从粉丝动态中消失，
+     * 因此先切换名单（之后的新文章正常写扩散），再把其最近 follow-backfill 篇文章补写给全部粉丝；
+     * 补写失败的作者留在名单中继续读时拉取，下次刷新时重试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${blog.feed.celebrity-refresh-interval-ms:60000}",
+            initialDelayString = "${blog.feed.celebrity-refresh-interval-ms:60000}")
+    public void refreshCelebrities() {
+        Set<Long> previous = celebrityIds;
+        Set<Long> next;
+        try {
+            next = Set.copyOf(userRepository.findIdsByFollowerCountAtLeast(celebrityThreshold));
+        } catch (RuntimeException e) {
+            log.warn("大 V 名单刷新失败，继续使用上一次的名单", e);
+            return;
+        }
+        celebrityIds = next;
+
+        Set<Long> stillPulled = new HashSet<>(next);
+        for (Long authorId : previous) {
+            if (next.contains(authorId)) {
+                continue;
+            }
+            try {
+                int written = followBackfill > 0 ? feedItemRepository.backfillFollowers(authorId, followBackfill) : 0;
+                log.info("作者 {} 跌出大 V 名单，补写粉丝动态 {} 条", authorId, written);
+            } catch (RuntimeException e) {
+                log.warn("作者 {} 跌出大 V 名单后补写粉丝动态失败，继续读时拉取", authorId, e);
+                stillPulled.add(authorId);
+            }
+        }
+        if (stillPulled.size() != next.size()) {
+            celebrityIds = Set.copyOf(stillPulled);
+        }
+    }
+
+    /**
+     * 裁剪每个用户超出 max-items 的旧动态，返回删除的行数
+     */
+    @Scheduled(cron = "${blog.feed.trim-cron:0 15 * * * *}")
+    public int trim() {
+        Long min = feedItemRepository.findMinUserId();
+        Long max = feedItemRepository.findMaxUserId();
+        if (min == null || max == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (long from = min; from <= max; from += trimBatchSize) {
+            removed += feedItemRepository.trim(from, from + trimBatchSize - 1, maxItems);
+        }
+        if (removed > 0) {
+            log.info("关注动态裁剪完成，删除 {} 条", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * 两路结果各自是游标之后的前 limit 条，合并去重后取前 limit 条即为整体的前 limit 条
+     */
+    private static Slice<PostSummary> merge(Slice<PostSummary> pushed, Slice<PostSummary> pulled, Pageable pageable) {
+        Map<Long, PostSummary> unique = new LinkedHashMap<>();
+        pushed.forEach(post -> unique.put(post.getId(), post));
+        pulled.forEach(post -> unique.putIfAbsent(post.getId(), post));
+        List<PostSummary> merged = new ArrayList<>(unique.values());
+        merged.sort(NEWEST_FIRST);
+        int limit = pageable.getPageSize();
+        boolean hasNext = merged.size() > limit || pushed.hasNext() || pulled.hasNext();
+        List<PostSummary> content = merged.size() > limit ? merged.subList(0, limit) : merged;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,92 @@
+package com.xuebao.demo.service.search;
+
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.repository.PostRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 检索实现的公共部分：检索引擎只负责给出按相关度排序的文章 id，
+ * 摘要字段统一通过一次 IN 查询回填
+ */
+public abstract class AbstractPostSearchService implements PostSearchService {
+
+    // 高亮起止标记（控制字符，不会出现在正常文本中），转义后再替换为 <em>
+    protected static final String HIGHLIGHT_START = "\u0002";
+    protected static final String HIGHLIGHT_END = "\u0003";
+
+    protected final PostRepository postRepository;
+
+    protected AbstractPostSearchService(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * 按检索引擎给出的顺序组装结果页，已被删除的文章会被跳过
+     */
+    protected Page<PostSearchHit> assemble(List<RankedHit> hits, Pageable pageable, long total) {
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        List<Long> ids = hits.stream().map(RankedHit::getId).collect(Collectors.toList());
+        Map<Long, PostSummary> summaries = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+
+        List<PostSearchHit> content = new ArrayList<>(hits.size());
+        for (RankedHit hit : hits) {
+            PostSummary summary = summaries.get(hit.getId());
+            if (summary != null) {
+                content.add(new PostSearchHit(summary, hit.getScore(), hit.getHighlight()));
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * 对带起止标记的片段做 HTML 转义，再把标记替换为 <em>，避免正文中的 HTML 原样输出
+     */
+    protected static String toSafeHighlight(String marked) {
+        if (marked == null || marked.isEmpty()) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(marked)
+                .replace(HIGHLIGHT_START, "<em>")
+                .replace(HIGHLIGHT_END, "</em>");
+    }
+
+    /**
+     * 检索引擎返回的单条命中
+     */
+    protected static class RankedHit {
+        private final Long id;
+        private final Double score;
+        private final String highlight;
+
+        public RankedHit(Long id, Double score, String highlight) {
+            this.id = id;
+            this.score = score;
+            this.highlight = highlight;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public String getHighlight() {
+            return highlight;
+        }
+    }
+}
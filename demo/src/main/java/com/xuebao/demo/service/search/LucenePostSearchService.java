@@ -0,0 +1,230 @@
+package com.xuebao.demo.service.search;
+
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParserBase;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于嵌入式 Lucene 索引的实现，适用于没有 PostgreSQL 全文检索扩展（如 zhparser）的部署
+ * 使用 SmartChineseAnalyzer 做中文分词；blog.search.lucene.index-dir 为空时索引只保存在内存中
+ * 启动时若索引为空会从数据库全量重建
+ */
+@Service
+@ConditionalOnProperty(name = "blog.search.engine", havingValue = "lucene")
+public class LucenePostSearchService extends AbstractPostSearchService {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int FRAGMENT_SIZE = 80;
+    private static final int MAX_FRAGMENTS = 2;
+
+    private final Analyzer analyzer = new SmartChineseAnalyzer();
+
+    @Value("${blog.search.lucene.index-dir:}")
+    private String indexDir;
+
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+
+    public LucenePostSearchService(PostRepository postRepository) {
+        super(postRepository);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = (indexDir == null || indexDir.isBlank())
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    /**
+     * 启动完成后，若索引为空则从数据库重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() throws IOException {
+        if (indexWriter.getDocStats().numDocs == 0 && postRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 分批从数据库重建全部索引
+     */
+    public void rebuild() throws IOException {
+        indexWriter.deleteAll();
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Post> batch;
+        do {
+            batch = postRepository.findAll(pageable);
+            for (Post post : batch) {
+                indexWriter.updateDocument(new Term(FIELD_ID, String.valueOf(post.getId())), toDocument(post));
+            }
+            pageable = pageable.next();
+        } while (batch.hasNext());
+        commit();
+    }
+
+    @Override
+    public Page<PostSearchHit> search(String keyword, Pageable pageable) {
+        Query query = parse(keyword);
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, limit);
+            long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? topDocs.totalHits.value
+                    : searcher.count(query);
+
+            Highlighter highlighter = new Highlighter(
+                    new SimpleHTMLFormatter(HIGHLIGHT_START, HIGHLIGHT_END), new QueryScorer(query, FIELD_CONTENT));
+            highlighter.setTextFragmenter(new SimpleFragmenter(FRAGMENT_SIZE));
+
+            List<RankedHit> hits = new ArrayList<>();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = (int) pageable.getOffset(); i < scoreDocs.length; i++) {
+                Document doc = searcher.storedFields().document(scoreDocs[i].doc);
+                Long id = Long.valueOf(doc.get(FIELD_ID));
+                String fragment = highlight(highlighter, doc.get(FIELD_CONTENT));
+                hits.add(new RankedHit(id, (double) scoreDocs[i].score, toSafeHighlight(fragment)));
+            }
+            return assemble(hits, pageable, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("全文检索失败", e);
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    @Override
+    public void index(Post post) {
+        try {
+            indexWriter.updateDocument(new Term(FIELD_ID, String.valueOf(post.getId())), toDocument(post));
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("更新文章索引失败，id: " + post.getId(), e);
+        }
+    }
+
+    @Override
+    public void remove(Long postId) {
+        try {
+            indexWriter.deleteDocuments(new Term(FIELD_ID, String.valueOf(postId)));
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除文章索引失败，id: " + postId, e);
+        }
+    }
+
+    private Document toDocument(Post post) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, String.valueOf(post.getId()), Field.Store.YES));
+        doc.add(new TextField(FIELD_TITLE, nullToEmpty(post.getTitle()), Field.Store.YES));
+        doc.add(new TextField(FIELD_CONTENT, nullToEmpty(post.getContent()), Field.Store.YES));
+        return doc;
+    }
+
+    private Query parse(String keyword) {
+        // 标题命中的权重高于正文
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{FIELD_TITLE, FIELD_CONTENT}, analyzer, Map.of(FIELD_TITLE, 2.0f, FIELD_CONTENT, 1.0f));
+        try {
+            return parser.parse(QueryParserBase.escape(keyword));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("无法解析搜索关键词: " + keyword, e);
+        }
+    }
+
+    private String highlight(Highlighter highlighter, String content) throws IOException {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] fragments = highlighter.getBestFragments(analyzer, FIELD_CONTENT, content, MAX_FRAGMENTS);
+            if (fragments.length > 0) {
+                return String.join(" ... ", fragments);
+            }
+        } catch (InvalidTokenOffsetsException e) {
+            // 高亮失败时退化为正文开头
+        }
+        return content.substring(0, Math.min(FRAGMENT_SIZE, content.length()));
+    }
+
+    private void commit() throws IOException {
+        indexWriter.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
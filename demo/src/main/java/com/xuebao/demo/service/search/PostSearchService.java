@@ -0,0 +1,28 @@
+package com.xuebao.demo.service.search;
+
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.entity.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 文章全文检索服务
+ * 通过 blog.search.engine 选择实现：postgres（默认，tsvector + GIN 索引）或 lucene（进程内嵌入式索引）
+ */
+public interface PostSearchService {
+
+    /**
+     * 按相关度分页检索标题和正文
+     */
+    Page<PostSearchHit> search(String keyword, Pageable pageable);
+
+    /**
+     * 文章新增或更新后同步索引
+     */
+    void index(Post post);
+
+    /**
+     * 文章删除后移除索引
+     */
+    void remove(Long postId);
+}
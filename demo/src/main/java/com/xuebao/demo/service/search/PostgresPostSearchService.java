@@ -0,0 +1,87 @@
+package com.xuebao.demo.service.search;
+
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.PostSearchRow;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 PostgreSQL 全文检索的实现
+ * posts.search_vector 是由 title/content 生成的 STORED 列，插入和更新时由数据库自动维护，配合 GIN 索引使用
+ * 中文分词需要安装 zhparser 等扩展并创建对应的 text search configuration，再通过
+ * blog.search.postgres.text-search-config 指定；没有扩展时请使用 lucene 后端
+ */
+@Service
+@ConditionalOnProperty(name = "blog.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresPostSearchService extends AbstractPostSearchService {
+
+    private static final String HEADLINE_OPTIONS = "StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_END
+            + ", MaxFragments=2, MaxWords=35, MinWords=15, FragmentDelimiter=\" ... \"";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.search.postgres.text-search-config:simple}")
+    private String textSearchConfig;
+
+    @Value("${blog.search.postgres.init-schema:true}")
+    private boolean initSchema;
+
+    public PostgresPostSearchService(PostRepository postRepository, JdbcTemplate jdbcTemplate) {
+        super(postRepository);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 确保检索列和 GIN 索引存在（与 database/schema.sql 中的定义一致，可重复执行）
+     */
+    @PostConstruct
+    public void ensureSchema() {
+        if (!textSearchConfig.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalStateException("非法的 text search configuration: " + textSearchConfig);
+        }
+        if (!initSchema) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector "
+                + "GENERATED ALWAYS AS ("
+                + "setweight(to_tsvector('" + textSearchConfig + "', coalesce(title, '')), 'A') || "
+                + "setweight(to_tsvector('" + textSearchConfig + "', coalesce(content, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PostSearchHit> search(String keyword, Pageable pageable) {
+        long total = postRepository.countFullText(textSearchConfig, keyword);
+        if (total == 0 || pageable.getOffset() >= total) {
+            return assemble(List.of(), pageable, total);
+        }
+        List<PostSearchRow> rows = postRepository.searchFullText(textSearchConfig, keyword, HEADLINE_OPTIONS,
+                pageable.getPageSize(), pageable.getOffset());
+        List<RankedHit> hits = rows.stream()
+                .map(row -> new RankedHit(row.getId(), row.getScore(), toSafeHighlight(row.getHighlight())))
+                .collect(Collectors.toList());
+        return assemble(hits, pageable, total);
+    }
+
+    @Override
+    public void index(Post post) {
+        // search_vector 为生成列，由数据库在 INSERT/UPDATE 时自动维护
+    }
+
+    @Override
+    public void remove(Long postId) {
+        // 行删除后索引项随之删除
+    }
+}
@@ -0,0 +1,205 @@
+package com.xuebao.demo.service.trending;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 单个时间窗口的热度榜（内存，线程安全）
+ * 热度按指数衰减：t 时刻权重为 w 的事件在 now 时刻贡献 w * 2^(-(now - t) / halfLife)。
+ * 内部不逐条衰减，而是把事件换算到固定基准时刻 epoch 上累加（w * 2^((t - epoch) / halfLife)），
+ * 所有文章同乘一个因子，排序不随时间变化，写入只改动一条记录；基准值增长过大时由 maintain 整体换底。
+ * 排名结构：id → 条目的 ConcurrentHashMap + 按分数降序的 ConcurrentSkipListSet，读取前 k 名为 O(k)
+ */
+public class TrendingBoard {
+
+    // 基准值超过 2^MAX_EXPONENT 时换底，远低于 double 上限
+    private static final double MAX_EXPONENT = 32;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble((Entry entry) -> entry.score).reversed()
+            .thenComparingLong(entry -> entry.postId);
+
+    private final String name;
+    private final Duration window;
+    private final double halfLifeMillis;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING);
+    // 写入持读锁（互不阻塞），换底持写锁
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+
+    private volatile long epochMillis;
+    private volatile boolean dirty;
+
+    /**
+     * @param halfLife   衰减半衰期
+     * @param maxEntries 榜单保留的文章数上限，超出的低分文章在 maintain 时丢弃
+     */
+    public TrendingBoard(String name, Duration window, Duration halfLife, int maxEntries, long nowMillis) {
+        this.name = name;
+        this.window = window;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.maxEntries = maxEntries;
+        this.epochMillis = nowMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * 记录一次事件，weight 为负表示撤销（如取消点赞）；分数不再为正的文章移出榜单
+     */
+    public void add(long postId, double weight, long atMillis) {
+        rebaseLock.readLock().lock();
+        try {
+            double delta = weight * Math.pow(2, (atMillis - epochMillis) / halfLifeMillis);
+            entries.compute(postId, (id, old) -> {
+                double score = (old == null ? 0 : old.score) + delta;
+                Entry updated = score > 0 ? new Entry(id, score) : null;
+                // 先加后删：并发读取最多看到重复条目（由 forEachRanked 去重），不会漏掉该文章
+                if (updated != null) {
+                    ranking.add(updated);
+                }
+                if (old != null) {
+                    ranking.remove(old);
+                }
+                return updated;
+            });
+            dirty = true;
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从检查点恢复：score 为 atMillis 时刻的衰减后分数
+     */
+    public void restore(long postId, double score, long atMillis) {
+        add(postId, score, atMillis);
+    }
+
+    public void remove(long postId) {
+        entries.computeIfPresent(postId, (id, old) -> {
+            ranking.remove(old);
+            dirty = true;
+            return null;
+        });
+    }
+
+    /**
+     * 按分数降序遍历，把 now 时刻的分数依次交给 visitor，visitor 返回 false 时停止；不访问数据库
+     */
+    public void forEachRanked(long nowMillis, RankVisitor visitor) {
+        double scale = Math.pow(2, (epochMillis - nowMillis) / halfLifeMillis);
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking) {
+            if (seen.add(entry.postId) && !visitor.visit(entry.postId, entry.score * scale)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 前 limit 名在 now 时刻的分数（按分数降序），用于写检查点
+     */
+    public List<Map.Entry<Long, Double>> snapshot(long nowMillis, int limit) {
+        List<Map.Entry<Long, Double>> result = new ArrayList<>(Math.min(limit, entries.size()));
+        forEachRanked(nowMillis, (postId, score) -> {
+            result.add(Map.entry(postId, score));
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    /**
+     * 定期维护：基准值过大时整体换底；丢弃衰减到 minScore 以下的文章和超出条数上限的低分文章
+     */
+    public void maintain(long nowMillis, double minScore) {
+        if ((nowMillis - epochMillis) / halfLifeMillis > MAX_EXPONENT) {
+            rebase(nowMillis);
+        }
+        double threshold = minScore * Math.pow(2, (nowMillis - epochMillis) / halfLifeMillis);
+        Entry last;
+        while ((last = lowest()) != null && (entries.size() > maxEntries || last.score < threshold)) {
+            if (ranking.remove(last)) {
+                entries.remove(last.postId, last);
+            }
+        }
+    }
+
+    /**
+     * 自上次调用以来是否有变化（用于跳过未变化窗口的检查点）
+     */
+    public boolean checkAndClearDirty() {
+        boolean wasDirty = dirty;
+        dirty = false;
+        return wasDirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry lowest() {
+        try {
+            return ranking.last();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private void rebase(long nowMillis) {
+        rebaseLock.writeLock().lock();
+        try {
+            double scale = Math.pow(2, (epochMillis - nowMillis) / halfLifeMillis);
+            List<Entry> rescaled = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                rescaled.add(new Entry(entry.postId, entry.score * scale));
+            }
+            entries.clear();
+            ranking.clear();
+            for (Entry entry : rescaled) {
+                entries.put(entry.postId, entry);
+                ranking.add(entry);
+            }
+            epochMillis = nowMillis;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RankVisitor {
+        boolean visit(long postId, double score);
+    }
+
+    private static final class Entry {
+        private final long postId;
+        private final double score;
+
+        private Entry(long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.xuebao.demo.service.trending;
+
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.dto.response.TrendingPost;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.PostScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热门文章榜
+ * 浏览、点赞、评论事件按权重计入各时间窗口的 TrendingBoard（半衰期为窗口长度的 1/4，
+ * 窗口之外的事件贡献不超过 1/16）；读取只访问内存，不查库。
+ * 后台任务：定时刷新榜单前列文章的摘要（一条 IN 查询，同时剔除已删除/未发布的文章），
+ * 定时把各窗口前 N 名写入 post_scores 检查点；启动时从检查点重建，没有检查点的窗口按文章计数估算
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    // 单次最多返回的条数
+    public static final int MAX_RESULTS = 50;
+
+    // 每个窗口刷新摘要的前列条数（大于 MAX_RESULTS，给被剔除的文章留余量）
+    private static final int SUMMARY_DEPTH = MAX_RESULTS * 2;
+
+    private static final int HALF_LIFE_DIVISOR = 4;
+
+    private final PostRepository postRepository;
+    private final PostScoreRepository postScoreRepository;
+    private final Map<String, TrendingBoard> boards;
+    private final Map<Long, PostSummary> summaries = new ConcurrentHashMap<>();
+
+    private final double viewWeight;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final double minScore;
+    private final int checkpointEntries;
+    private final boolean checkpointOnShutdown;
+
+    public TrendingService(PostRepository postRepository,
+                           PostScoreRepository postScoreRepository,
+                           @Value("${blog.trending.windows:1h,24h,7d}") List<String> windows,
+                           @Value("${blog.trending.weight.view:1}") double viewWeight,
+                           @Value("${blog.trending.weight.like:5}") double likeWeight,
+                           @Value("${blog.trending.weight.comment:10}") double commentWeight,
+                           @Value("${blog.trending.max-entries:10000}") int maxEntries,
+                           @Value("${blog.trending.min-score:0.01}") double minScore,
+                           @Value("${blog.trending.checkpoint-entries:2000}") int checkpointEntries,
+                           @Value("${blog.trending.checkpoint-on-shutdown:true}") boolean checkpointOnShutdown) {
+        this.postRepository = postRepository;
+        this.postScoreRepository = postScoreRepository;
+        this.viewWeight = viewWeight;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.minScore = minScore;
+        this.checkpointEntries = checkpointEntries;
+        this.checkpointOnShutdown = checkpointOnShutdown;
+
+        long now = System.currentTimeMillis();
+        Map<String, TrendingBoard> configured = new LinkedHashMap<>();
+        for (String name : windows) {
+            String trimmed = name.trim();
+            Duration window = DurationStyle.detectAndParse(trimmed);
+            configured.put(trimmed, new TrendingBoard(trimmed, window, window.dividedBy(HALF_LIFE_DIVISOR), maxEntries, now));
+        }
+        this.boards = Collections.unmodifiableMap(configured);
+    }
+
+    public void recordView(Long postId) {
+        record(postId, viewWeight);
+    }
+
+    /**
+     * delta 为 -1 表示取消点赞
+     */
+    public void recordLike(Long postId, int delta) {
+        record(postId, likeWeight * delta);
+    }
+
+    /**
+     * delta 为负表示删除了评论（含被级联删除的回复）
+     */
+    public void recordComment(Long postId, int delta) {
+        record(postId, commentWeight * delta);
+    }
+
+    /**
+     * 文章被删除时移出所有榜单
+     */
+    public void remove(Long postId) {
+        for (TrendingBoard board : boards.values()) {
+            board.remove(postId);
+        }
+        summaries.remove(postId);
+    }
+
+    /**
+     * 指定窗口的前 size 名（只读内存，O(size)）；window 使用配置中的写法或等价时长（如 24h、1d），不支持时抛出 IllegalArgumentException
+     * 还没有摘要的新上榜文章暂不返回，下一次摘要刷新后出现
+     */
+    public List<TrendingPost> getTrending(String window, int size) {
+        TrendingBoard board = resolve(window);
+        int limit = Math.min(Math.max(size, 1), MAX_RESULTS);
+        List<TrendingPost> result = new ArrayList<>(limit);
+        board.forEachRanked(System.currentTimeMillis(), (postId, score) -> {
+            PostSummary summary = summaries.get(postId);
+            if (summary != null) {
+                result.add(new TrendingPost(result.size() + 1, score, summary));
+            }
+            return result.size() < limit;
+        });
+        return result;
+    }
+
+    public Set<String> getWindows() {
+        return boards.keySet();
+    }
+
+    /**
+     * 刷新各窗口前列文章的摘要：一条 IN 查询；查不到或未发布的文章移出榜单
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.summary-refresh-interval-ms:10000}",
+            initialDelayString = "${blog.trending.summary-refresh-interval-ms:10000}")
+    public void refreshSummaries() {
+        Set<Long> ids = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (TrendingBoard board : boards.values()) {
+            int[] visited = {0};
+            board.forEachRanked(now, (postId, score) -> {
+                ids.add(postId);
+                return ++visited[0] < SUMMARY_DEPTH;
+            });
+        }
+        if (ids.isEmpty()) {
+            summaries.clear();
+            return;
+        }
+        try {
+            Map<Long, PostSummary> loaded = new ConcurrentHashMap<>();
+            for (PostSummary summary : postRepository.findSummariesByIdIn(ids)) {
+                if (summary.getStatus() == PostStatus.PUBLISHED) {
+                    loaded.put(summary.getId(), summary);
+                }
+            }
+            for (Long id : ids) {
+                if (!loaded.containsKey(id)) {
+                    remove(id);
+                }
+            }
+            summaries.putAll(loaded);
+            summaries.keySet().retainAll(ids);
+        } catch (RuntimeException e) {
+            log.warn("热度榜摘要刷新失败，继续使用上一次的摘要", e);
+        }
+    }
+
+    /**
+     * 维护各窗口（换底、淘汰低分），把有变化的窗口前 N 名写入 post_scores
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.checkpoint-interval-ms:60000}",
+            initialDelayString = "${blog.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        long now = System.currentTimeMillis();
+        LocalDateTime at = toLocalDateTime(now);
+        for (TrendingBoard board : boards.values()) {
+            board.maintain(now, minScore);
+            if (!board.checkAndClearDirty()) {
+                continue;
+            }
+            try {
+                postScoreRepository.replaceWindow(board.getName(), board.snapshot(now, checkpointEntries), at);
+            } catch (RuntimeException e) {
+                log.warn("热度榜 {} 检查点写入失败，下个周期重试", board.getName(), e);
+                board.markDirty();
+            }
+        }
+    }
+
+    /**
+     * 应用关闭时写一次检查点（在销毁任何 bean 之前，此时数据源和表结构仍然可用）
+     * 可由 blog.trending.checkpoint-on-shutdown=false 关闭（测试中多个上下文共用一个内存库，关闭时表可能已被删除）
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void checkpointOnShutdown() {
+        if (checkpointOnShutdown) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * 启动时重建：有检查点的窗口按检查点时刻的分数恢复，其余窗口按窗口内已发布文章的计数估算
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        Set<String> restored = new HashSet<>();
+        for (PostScoreRepository.ScoreRow row : postScoreRepository.findAll()) {
+            TrendingBoard board = boards.get(row.getWindowName());
+            if (board != null) {
+                board.restore(row.getPostId(), row.getScore(), toMillis(row.getUpdatedAt()));
+                restored.add(board.getName());
+            }
+        }
+
+        Duration longest = Duration.ZERO;
+        for (TrendingBoard board : boards.values()) {
+            if (!restored.contains(board.getName()) && board.getWindow().compareTo(longest) > 0) {
+                longest = board.getWindow();
+            }
+        }
+        if (!longest.isZero()) {
+            List<PostSummary> recent = postRepository.findSummariesByStatusCreatedSince(
+                    PostStatus.PUBLISHED, toLocalDateTime(now - longest.toMillis()));
+            for (TrendingBoard board : boards.values()) {
+                if (restored.contains(board.getName())) {
+                    continue;
+                }
+                long since = now - board.getWindow().toMillis();
+                for (PostSummary post : recent) {
+                    long createdAt = toMillis(post.getCreatedAt());
+                    double weight = viewWeight * count(post.getViewCount()) + likeWeight * count(post.getLikeCount())
+                            + commentWeight * count(post.getCommentCount());
+                    if (createdAt >= since && weight > 0) {
+                        board.add(post.getId(), weight, createdAt);
+                    }
+                }
+            }
+        }
+        for (TrendingBoard board : boards.values()) {
+            board.maintain(now, minScore);
+        }
+        refreshSummaries();
+        log.info("热度榜已重建：{}", describeSizes());
+    }
+
+    private void record(Long postId, double weight) {
+        if (postId == null || weight == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (TrendingBoard board : boards.values()) {
+            board.add(postId, weight, now);
+        }
+    }
+
+    private TrendingBoard resolve(String window) {
+        TrendingBoard board = boards.get(window);
+        if (board != null) {
+            return board;
+        }
+        Duration requested;
+        try {
+            requested = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            requested = null;
+        }
+        for (TrendingBoard candidate : boards.values()) {
+            if (candidate.getWindow().equals(requested)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("不支持的时间窗口: " + window + "，可选值: " + String.join(", ", boards.keySet()));
+    }
+
+    private String describeSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        boards.forEach((name, board) -> sizes.put(name, board.size()));
+        return sizes.toString();
+    }
+
+    private static long count(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,46 @@
+package com.xuebao.demo.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caffeine 读穿加载工具
+ * 同步 Cache.get(key, loader) 在 ConcurrentHashMap.compute 的 synchronized 块中执行 loader，
+ * loader 查库时会把虚拟线程钉在载体线程上（JDK 21）。这里只在 compute 中放入一个未完成的 future，
+ * 由抢到该 key 的调用线程在锁外加载并完成它；同 key 的并发未命中仍然合并为一次加载，其他线程等待 future。
+ */
+public final class CacheLoadUtil {
+
+    private CacheLoadUtil() {
+    }
+
+    /**
+     * 获取缓存值，未命中时在当前线程加载；loader 返回 null 时不缓存
+     */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.xuebao.demo.util;
+
+/**
+ * 评论物化路径（materialized path）
+ * 路径由根评论到当前评论的 id 依次拼接而成，每段补零到固定 10 位十进制、不加分隔符，例如
+ * 0000000012 → 00000000120000000035 → 000000001200000000350000000041。
+ * 只含数字且定长，任何排序规则下的字符串顺序都等于"先父后子、同级按 id"的深度优先顺序；
+ * 子树即 [path, upperBound(path)) 区间，读取、计数、删除都是 path 索引上的一次范围扫描
+ */
+public final class CommentPath {
+
+    public static final int SEGMENT_WIDTH = 10;
+
+    // 与 Comment.path 的列长度一致，最多 200 层
+    public static final int MAX_LENGTH = 2000;
+
+    public static final int MAX_DEPTH = MAX_LENGTH / SEGMENT_WIDTH - 1;
+
+    // 比任何 10 位段都大的段（id 不会达到该值），作为子树区间的开上界
+    private static final String UPPER_SEGMENT = "9999999999";
+
+    private CommentPath() {
+    }
+
+    /**
+     * 在父路径后追加当前评论的段；parentPath 为空表示顶级评论
+     */
+    public static String append(String parentPath, long id) {
+        if (id < 0 || id >= 9_999_999_999L) {
+            throw new IllegalArgumentException("评论 id 超出路径编码范围: " + id);
+        }
+        String digits = Long.toString(id);
+        StringBuilder path = new StringBuilder((parentPath == null ? 0 : parentPath.length()) + SEGMENT_WIDTH);
+        if (parentPath != null) {
+            path.append(parentPath);
+        }
+        for (int i = digits.length(); i < SEGMENT_WIDTH; i++) {
+            path.append('0');
+        }
+        return path.append(digits).toString();
+    }
+
+    /**
+     * 子树区间的开上界：path 的所有后代都满足 path <= x < upperBound(path)
+     */
+    public static String upperBound(String path) {
+        return path + UPPER_SEGMENT;
+    }
+}
@@ -0,0 +1,77 @@
+package com.xuebao.demo.util;
+
+import com.xuebao.demo.dto.response.CommentResponse;
+import com.xuebao.demo.dto.response.CommentTree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把一篇文章的扁平评论行组装成评论树，O(n)：一次遍历建立 id 索引，一次遍历挂到父节点下，
+ * 最后按层遍历做深度/条数截断（迭代实现，回复链很深也不会栈溢出）
+ */
+public final class CommentTreeBuilder {
+
+    // 未指定深度时的上限，避免极深的回复链导致 JSON 嵌套过深
+    public static final int MAX_DEPTH = 100;
+
+    private CommentTreeBuilder() {
+    }
+
+    /**
+     * @param rows          按 createdAt、id 升序排列的评论行
+     * @param maxDepth      最大层数（1 表示只返回顶级评论），为空时使用 MAX_DEPTH
+     * @param limitPerLevel 每个节点最多返回的直接回复数（顶级评论同样适用），为空表示不限制
+     */
+    public static CommentTree build(Long postId, List<CommentResponse> rows, Integer maxDepth, Integer limitPerLevel) {
+        int depthLimit = maxDepth == null ? MAX_DEPTH : Math.min(Math.max(maxDepth, 1), MAX_DEPTH);
+        int childLimit = limitPerLevel == null ? Integer.MAX_VALUE : Math.max(limitPerLevel, 0);
+
+        Map<Long, CommentResponse> byId = new HashMap<>(rows.size() * 2);
+        Map<Long, List<CommentResponse>> children = new HashMap<>();
+        for (CommentResponse row : rows) {
+            byId.put(row.getId(), row);
+        }
+
+        List<CommentResponse> roots = new ArrayList<>();
+        for (CommentResponse row : rows) {
+            Long parentId = row.getParentCommentId();
+            if (parentId == null || !byId.containsKey(parentId)) {
+                roots.add(row);
+            } else {
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(row);
+            }
+        }
+        // 顶级评论最新在前，回复按时间正序（与 /post/{postId}、/{commentId}/replies 接口一致）
+        Collections.reverse(roots);
+
+        List<CommentResponse> topLevel = truncate(roots, childLimit);
+        Deque<CommentResponse> level = new ArrayDeque<>(topLevel);
+        for (int depth = 1; !level.isEmpty(); depth++) {
+            Deque<CommentResponse> next = new ArrayDeque<>();
+            for (CommentResponse node : level) {
+                List<CommentResponse> replies = children.getOrDefault(node.getId(), Collections.emptyList());
+                node.setReplyCount(replies.size());
+                if (depth < depthLimit && !replies.isEmpty()) {
+                    List<CommentResponse> kept = truncate(replies, childLimit);
+                    node.setReplies(kept);
+                    next.addAll(kept);
+                } else {
+                    node.setReplies(Collections.emptyList());
+                }
+            }
+            level = next;
+        }
+
+        return new CommentTree(postId, rows.size(), roots.size(), topLevel);
+    }
+
+    private static List<CommentResponse> truncate(List<CommentResponse> nodes, int limit) {
+        return nodes.size() <= limit ? nodes : new ArrayList<>(nodes.subList(0, limit));
+    }
+}
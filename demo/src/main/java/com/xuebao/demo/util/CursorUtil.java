@@ -0,0 +1,70 @@
+package com.xuebao.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 将 (createdAt, id) 编码为对客户端不透明的游标字符串，用于 keyset（seek）分页
+ */
+public final class CursorUtil {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorUtil() {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，空字符串或null表示第一页（返回null）
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, index));
+            Long id = Long.valueOf(raw.substring(index + 1));
+            return new Cursor(createdAt, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException 也是 IllegalArgumentException 的子类
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    /**
+     * 解码后的游标位置
+     */
+    public static final class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        public Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.xuebao.demo.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 id 累加的内存增量计数器（每个 id 一个 LongAdder，写入无锁、无数据库访问）
+ * 由定时任务调用 drain() 取走累计增量后批量写回数据库
+ */
+public class DeltaCounter {
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void add(Long id, long delta) {
+        counters.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+    }
+
+    public void increment(Long id) {
+        add(id, 1);
+    }
+
+    /**
+     * 尚未写回的增量
+     */
+    public long pending(Long id) {
+        LongAdder adder = counters.get(id);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 取走所有非零增量并清零；增量为零的 id 会被移除，避免 map 无限增长
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (counters.remove(entry.getKey(), entry.getValue())) {
+                // 移除与并发写入之间的竞争窗口内写入的增量，重新放回
+                long late = entry.getValue().sumThenReset();
+                if (late != 0) {
+                    add(entry.getKey(), late);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 写回失败时把增量放回，留待下次重试
+     */
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.xuebao.demo.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.ResourceUrlProviderExposingInterceptor;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把 HTML 中 &lt;script src&gt; / &lt;link href&gt; 引用的本地 css/js 改写为带内容版本号的 URL
+ * （与 Spring 自带的 CssLinkResourceTransformer 作用相同，对象换成静态 HTML 页面）；
+ * 找不到对应资源或外部链接保持原样
+ */
+public class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern LINK_PATTERN = Pattern.compile(
+            "(<(?:script|link)\\b[^>]*?\\s(?:src|href)=\")([^\"]+\\.(?:js|css))(\")", Pattern.CASE_INSENSITIVE);
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        resource = chain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+
+        String content = resource.getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = LINK_PATTERN.matcher(content);
+        StringBuilder result = new StringBuilder(content.length() + 256);
+        while (matcher.find()) {
+            String link = matcher.group(2);
+            String versioned = isLocal(link) ? versionedLink(link, request) : null;
+            matcher.appendReplacement(result, Matcher.quoteReplacement(
+                    matcher.group(1) + (versioned != null ? versioned : link) + matcher.group(3)));
+        }
+        matcher.appendTail(result);
+        return new TransformedResource(resource, result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 相对链接按页面路径转成绝对路径，交给 css/js 的资源处理器计算版本号，再保持原来的相对写法只替换文件名
+     */
+    private String versionedLink(String link, HttpServletRequest request) {
+        ResourceUrlProvider urlProvider = getResourceUrlProvider() != null ? getResourceUrlProvider()
+                : (ResourceUrlProvider) request.getAttribute(ResourceUrlProviderExposingInterceptor.RESOURCE_URL_PROVIDER_ATTR);
+        if (urlProvider == null) {
+            return null;
+        }
+        String versioned = urlProvider.getForLookupPath(link.startsWith("/") ? link : toAbsolutePath(link, request));
+        if (versioned == null || link.startsWith("/")) {
+            return versioned;
+        }
+        return link.substring(0, link.lastIndexOf('/') + 1) + versioned.substring(versioned.lastIndexOf('/') + 1);
+    }
+
+    private static boolean isLocal(String link) {
+        return !link.startsWith("//") && !link.contains(":");
+    }
+}
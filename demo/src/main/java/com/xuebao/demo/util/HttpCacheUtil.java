@@ -0,0 +1,75 @@
+package com.xuebao.demo.util;
+
+import com.xuebao.demo.dto.response.ResourceVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * HTTP 缓存响应头工具类
+ * 详情类接口带弱 ETag 和 Cache-Control: no-cache（可以存储，但每次使用前都要回源验证），
+ * 条件请求先只查版本，未变化时返回 304，不加载也不序列化完整内容；
+ * 文章列表类接口浏览器每次都验证（max-age=0），CDN 等共享缓存可在 s-maxage 内直接复用；
+ * 列表没有廉价的版本查询，验证用 ListingEtagFilter 按响应内容生成的 ETag，节省的是传输而不是查询。
+ */
+@Component
+public class HttpCacheUtil {
+
+    private final CacheControl listingCacheControl;
+
+    public HttpCacheUtil(@Value("${blog.http-cache.listing-shared-max-age:10s}") Duration listingSharedMaxAge) {
+        this.listingCacheControl = CacheControl.maxAge(Duration.ZERO).sMaxAge(listingSharedMaxAge).cachePublic();
+    }
+
+    public CacheControl detail() {
+        return CacheControl.noCache().cachePublic();
+    }
+
+    public CacheControl listing() {
+        return listingCacheControl;
+    }
+
+    /**
+     * 条件请求且版本未变化时返回 304 响应，否则返回 null（调用方继续生成完整响应）
+     * 只有请求带 If-None-Match / If-Modified-Since 时才会调用 versionSupplier；资源不存在时 supplier 返回 null
+     */
+    public <T> ResponseEntity<T> checkNotModified(WebRequest request, Supplier<ResourceVersion> versionSupplier) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return null;
+        }
+        return checkNotModified(request, versionSupplier.get());
+    }
+
+    /**
+     * 同上，用于完整响应也需要先查版本的场景（避免条件请求未命中时重复查询版本）
+     */
+    public <T> ResponseEntity<T> checkNotModified(WebRequest request, ResourceVersion version) {
+        // checkNotModified 命中时已写入 304 状态及 ETag/Last-Modified
+        if (version == null || !request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(detail()).build();
+    }
+
+    /**
+     * 带版本校验头的 200 响应
+     */
+    public ResponseEntity.BodyBuilder ok(ResourceVersion version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(detail());
+        if (version != null) {
+            builder.eTag(version.getETag());
+            if (version.getLastModified() >= 0) {
+                builder.lastModified(version.getLastModified());
+            }
+        }
+        return builder;
+    }
+}
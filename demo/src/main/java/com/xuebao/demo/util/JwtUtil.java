@@ -1,48 +1,150 @@
 package com.xuebao.demo.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.xuebao.demo.service.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    // 令牌中携带的用户 id、权限和启用状态（principal-source=claims 时过滤器直接信任，不查库）
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_ENABLED = "enabled";
+
+    // 已验证令牌缓存的最大条目数
+    public static final int DEFAULT_VERIFIED_CACHE_SIZE = 10_000;
+
     // 使用足够长的密钥（至少256位/32字符）
     private final String SECRET_KEY = "your-very-long-secret-key-must-be-at-least-32-characters-long";
     private final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // JwtParser 不可变且线程安全，全局复用一个实例
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)  // 新API：使用parserBuilder
+            .build();
+
+    // 最近验证通过的令牌 -> 声明；条目在令牌 exp 时过期，命中时跳过 Base64 解码和 HMAC 校验
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil() {
+        this(DEFAULT_VERIFIED_CACHE_SIZE);
+    }
+
+    /**
+     * @param verifiedCacheSize 已验证令牌缓存大小，0 表示不缓存
+     */
+    public JwtUtil(int verifiedCacheSize) {
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .build()
+                : null;
+    }
+
     public String generateToken(String username) {
+        return buildToken(username, null, null, null);
+    }
+
+    /**
+     * 生成携带权限和启用状态声明的令牌；UserPrincipal 同时携带用户 id
+     */
+    public String generateToken(UserDetails userDetails) {
+        List<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        Long userId = userDetails instanceof UserPrincipal principal ? principal.getId() : null;
+        return buildToken(userDetails.getUsername(), userId, authorities, userDetails.isEnabled());
+    }
+
+    /**
+     * 解析并校验令牌（签名 + 过期时间），返回声明；令牌无效时抛出 JwtException
+     * 返回的 Claims 可能被多个请求共享，只读
+     */
+    public Claims parse(String token) {
+        if (verifiedTokens == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * 解析并校验令牌，无效时返回 null
+     */
+    public Claims parseIfValid(String token) {
+        try {
+            return parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String extractUsername(String token) {
+        return parse(token).getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return parseIfValid(token) != null;
+    }
+
+    private String buildToken(String username, Long userId, List<String> authorities, Boolean enabled) {
         // 24小时
         long EXPIRATION = 86400000;
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION));
+        if (userId != null) {
+            builder.claim(CLAIM_USER_ID, userId);
+        }
+        if (authorities != null) {
+            builder.claim(CLAIM_AUTHORITIES, authorities);
+            builder.claim(CLAIM_ENABLED, enabled);
+        }
+        return builder
                 .signWith(key)  // 新API：直接传入SecretKey
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaimsFromToken(token).getSubject();
-    }
+    /**
+     * 缓存条目的存活时间 = 令牌剩余有效期
+     */
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
 
-    public boolean validateToken(String token) {
-        try {
-            getClaimsFromToken(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-    }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)  // 新API：使用parserBuilder
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.xuebao.demo.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 大文件零拷贝输出：资源是磁盘文件且不小于阈值时，交给 Tomcat 的 sendfile 直接从文件写入 socket，
+ * 不经过 JVM 堆缓冲；资源在 jar 内（非文件）、连接器不支持 sendfile 或文件较小时按普通流复制
+ * 只处理完整响应，Range 请求仍由父类按区间复制
+ */
+public class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    // Tomcat 约定的 sendfile 请求属性（org.apache.catalina.Globals）
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final long minSize;
+
+    public SendfileResourceHttpMessageConverter(long minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        File file = fileOf(resource);
+        if (request == null || file == null || file.length() < minSize
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            super.writeContent(resource, outputMessage);
+            return;
+        }
+        // Content-Length 已由父类写入；Tomcat 在 Servlet 返回后执行 sendfile
+        request.setAttribute(SENDFILE_FILENAME_ATTR, file.getCanonicalPath());
+        request.setAttribute(SENDFILE_FILE_START_ATTR, 0L);
+        request.setAttribute(SENDFILE_FILE_END_ATTR, file.length());
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+
+    private static File fileOf(Resource resource) {
+        try {
+            return resource.getFile();
+        } catch (IOException e) {
+            // jar 内的类路径资源等不是文件
+            return null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.xuebao.demo.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 记录语句执行次数和耗时的 DataSource 包装（Hibernate 和 JdbcTemplate 的语句都会经过这里）
+ * 只在 execute* 调用上计时（不含结果集遍历），结果写入当前线程的 SqlRequestContext
+ */
+public class SqlRecordingDataSource extends DelegatingDataSource {
+
+    public SqlRecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection recording(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && "prepareCall".equals(name)) {
+                return statement(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement && "prepareStatement".equals(name)) {
+                return statement(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && "createStatement".equals(name)) {
+                return statement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @param preparedSql 预编译语句的 SQL；普通 Statement 为 null，从 execute(sql) 参数中取
+     */
+    private static <T extends Statement> T statement(Class<T> type, T target, String preparedSql) {
+        return proxy(type, target, (method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long started = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                SqlRequestContext.record(sql, System.nanoTime() - started);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        return (T) Proxy.newProxyInstance(SqlRecordingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(method.getName()) && type.equals(args[0])) {
+                        return proxy;
+                    }
+                    return handler.handle(method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
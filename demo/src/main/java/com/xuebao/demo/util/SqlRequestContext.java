@@ -0,0 +1,147 @@
+package com.xuebao.demo.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 单个 HTTP 请求内执行的 SQL 统计（语句数、数据库耗时、按指纹聚合的语句）
+ * 由 SqlBudgetFilter 在请求线程上开启/结束，SqlRecordingDataSource 在语句执行后记录；
+ * 没有开启上下文的线程（定时任务等）不做统计
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    // 单个请求最多保留的不同指纹数，避免动态 SQL 撑大内存
+    private static final int MAX_FINGERPRINTS = 50;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statementCount;
+    private long totalNanos;
+    private final Map<String, FingerprintStats> fingerprints = new LinkedHashMap<>();
+
+    // 控制器方法上 @SqlBudget 声明的预算，未声明时为 null
+    private Integer maxStatements;
+    private Long maxTimeMillis;
+
+    private SqlRequestContext() {
+    }
+
+    public static SqlRequestContext begin() {
+        SqlRequestContext context = new SqlRequestContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 记录一次语句执行；当前线程没有请求上下文时忽略
+     */
+    public static void record(String sql, long elapsedNanos) {
+        SqlRequestContext context = CURRENT.get();
+        if (context == null) {
+            return;
+        }
+        context.statementCount++;
+        context.totalNanos += elapsedNanos;
+        String fingerprint = fingerprint(sql);
+        FingerprintStats stats = context.fingerprints.get(fingerprint);
+        if (stats == null && context.fingerprints.size() < MAX_FINGERPRINTS) {
+            stats = new FingerprintStats(fingerprint);
+            context.fingerprints.put(fingerprint, stats);
+        }
+        if (stats != null) {
+            stats.count++;
+            stats.totalNanos += elapsedNanos;
+        }
+    }
+
+    /**
+     * SQL 指纹：去掉字面量、合并 IN 列表和空白，同一查询不同参数得到相同指纹
+     */
+    public static String fingerprint(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    public void setBudget(int maxStatements, long maxTimeMillis) {
+        this.maxStatements = maxStatements;
+        this.maxTimeMillis = maxTimeMillis;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public Integer getMaxStatements() {
+        return maxStatements;
+    }
+
+    public Long getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    public boolean hasDeclaredBudget() {
+        return maxStatements != null;
+    }
+
+    /**
+     * 按执行次数降序的指纹统计
+     */
+    public List<FingerprintStats> getTopFingerprints(int limit) {
+        List<FingerprintStats> result = new ArrayList<>(fingerprints.values());
+        result.sort(Comparator.comparingInt(FingerprintStats::getCount).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public static class FingerprintStats {
+        private final String fingerprint;
+        private int count;
+        private long totalNanos;
+
+        FingerprintStats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return count + "x " + String.format("%.1fms", totalNanos / 1_000_000.0) + " " + fingerprint;
+        }
+    }
+}
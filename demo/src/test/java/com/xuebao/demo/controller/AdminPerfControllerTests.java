@@ -0,0 +1,96 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.Role;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 性能摘要接口与 Prometheus 端点
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"management.endpoints.web.exposure.include=health,prometheus",
+		"management.metrics.distribution.percentiles.http.server.requests=0.5,0.99"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AdminPerfControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User admin;
+	private User reader;
+
+	@BeforeEach
+	void setUp() {
+		admin = new User("perf_admin", "secret", "perf_admin@xuebao.com");
+		admin.setRole(Role.ADMIN);
+		admin = userRepository.save(admin);
+		reader = userRepository.save(new User("perf_reader", "secret", "perf_reader@xuebao.com"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteById(admin.getId());
+		userRepository.deleteById(reader.getId());
+	}
+
+	@Test
+	void summaryIsAdminOnlyAndIncludesRecordedTimers() throws Exception {
+		mockMvc.perform(get("/api/posts")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/admin/perf")
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(reader.getUsername())))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(get("/api/admin/perf")
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(admin.getUsername())))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.http[?(@.name == 'GET /api/posts')].count").isNotEmpty())
+				.andExpect(jsonPath("$.data.jwtFilter[?(@.name == 'authenticated')]").isNotEmpty())
+				.andExpect(jsonPath("$.data.services[?(@.name == 'com.xuebao.demo.service.PostService getAllPostsPaged')].count").isNotEmpty())
+				.andExpect(jsonPath("$.data.caches.postDetail").exists());
+	}
+
+	@Test
+	void prometheusEndpointIsAdminOnly() throws Exception {
+		mockMvc.perform(get("/api/posts")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus")
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(reader.getUsername())))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus")
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(admin.getUsername())))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("blog_security_jwt_filter_seconds_count")))
+				.andExpect(content().string(containsString("hikaricp_connections_active")));
+	}
+}
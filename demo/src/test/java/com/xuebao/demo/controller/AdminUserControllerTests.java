@@ -0,0 +1,112 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.Role;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.UserPrincipalCache;
+import com.xuebao.demo.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 管理员用户管理：角色变更和禁用在下一次请求即生效（用户详情缓存被失效）
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminUserControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserPrincipalCache userPrincipalCache;
+
+	private User admin;
+	private User member;
+	private String adminToken;
+	private String memberToken;
+
+	@BeforeEach
+	void setUp() {
+		admin = new User("users_admin", "secret", "users_admin@xuebao.com");
+		admin.setRole(Role.ADMIN);
+		admin = userRepository.save(admin);
+		member = userRepository.save(new User("users_member", "secret", "users_member@xuebao.com"));
+		adminToken = "Bearer " + jwtUtil.generateToken(admin.getUsername());
+		memberToken = "Bearer " + jwtUtil.generateToken(member.getUsername());
+	}
+
+	@AfterEach
+	void tearDown() {
+		userPrincipalCache.evict(admin.getUsername());
+		userPrincipalCache.evict(member.getUsername());
+		userRepository.deleteById(admin.getId());
+		userRepository.deleteById(member.getId());
+	}
+
+	@Test
+	void disabledUserIsRejectedOnNextRequest() throws Exception {
+		// 先让 member 的用户详情进入缓存
+		mockMvc.perform(get("/api/likes/posts").param("ids", "1").header("Authorization", memberToken))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(put("/api/admin/users/{id}/enabled", member.getId()).param("enabled", "false")
+						.header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.username").value(member.getUsername()));
+
+		mockMvc.perform(get("/api/likes/posts").param("ids", "1").header("Authorization", memberToken))
+				.andExpect(status().isUnauthorized());
+
+		mockMvc.perform(put("/api/admin/users/{id}/enabled", member.getId()).param("enabled", "true")
+						.header("Authorization", adminToken))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/likes/posts").param("ids", "1").header("Authorization", memberToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void roleChangeAppliesOnNextRequest() throws Exception {
+		mockMvc.perform(get("/api/admin/perf").header("Authorization", memberToken))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(put("/api/admin/users/{id}/role", member.getId()).param("role", "admin")
+						.header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.role").value("ADMIN"));
+
+		mockMvc.perform(get("/api/admin/perf").header("Authorization", memberToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void onlyAdminsCanManageUsersAndErrorsAreMapped() throws Exception {
+		mockMvc.perform(put("/api/admin/users/{id}/enabled", admin.getId()).param("enabled", "false")
+						.header("Authorization", memberToken))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(put("/api/admin/users/{id}/role", member.getId()).param("role", "NOBODY")
+						.header("Authorization", adminToken))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(put("/api/admin/users/{id}/enabled", -1L).param("enabled", "false")
+						.header("Authorization", adminToken))
+				.andExpect(status().isNotFound());
+	}
+}
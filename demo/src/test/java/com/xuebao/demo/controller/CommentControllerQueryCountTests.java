@@ -0,0 +1,125 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.CommentService;
+import com.xuebao.demo.service.cache.CommentAuthorCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 评论列表接口的 SQL 语句数断言
+ * 作者摘要按整批解析，语句数与评论条数、作者人数无关（不允许按行加载 User）
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentControllerQueryCountTests {
+
+	private static final int AUTHORS = 6;
+	private static final int COMMENTS_PER_AUTHOR = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private CommentAuthorCache commentAuthorCache;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<User> authors = new ArrayList<>();
+	private Post post;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < AUTHORS; i++) {
+			User author = new User("cqc_author_" + i, "secret", "cqc_author_" + i + "@xuebao.com");
+			author.setNickname("评论者" + i);
+			authors.add(userRepository.save(author));
+		}
+		post = postRepository.save(new Post("评论语句数", "正文", authors.get(0)));
+		for (int j = 0; j < COMMENTS_PER_AUTHOR; j++) {
+			for (User author : authors) {
+				commentService.createComment(new Comment("评论 " + author.getUsername() + "-" + j, post, author));
+			}
+		}
+		commentAuthorCache.evictAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		postRepository.deleteById(post.getId());
+		authors.forEach(author -> userRepository.deleteById(author.getId()));
+	}
+
+	@Test
+	void fullListingResolvesAllAuthorsInOneQuery() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}", post.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.length()").value(AUTHORS * COMMENTS_PER_AUTHOR))
+				.andExpect(jsonPath("$.data[0].authorName").exists())
+				.andExpect(jsonPath("$.data[0].authorNickname").exists());
+		// 版本 + 文章存在性 + 评论行 + 作者 IN 查询
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(userLoadCount()).isZero();
+	}
+
+	@Test
+	void cursorListingResolvesAllAuthorsInOneQuery() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}", post.getId()).param("mode", "cursor").param("size", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.content.length()").value(AUTHORS * COMMENTS_PER_AUTHOR));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(userLoadCount()).isZero();
+	}
+
+	@Test
+	void warmAuthorCacheSkipsAuthorQuery() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}/tree", post.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.comments[0].author.nickname").exists());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+		statistics.clear();
+		mockMvc.perform(get("/api/comments/post/{postId}/tree", post.getId())).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(userLoadCount()).isZero();
+	}
+
+	private long userLoadCount() {
+		return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+	}
+}
@@ -0,0 +1,114 @@
+package com.xuebao.demo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 评论游标分页：逐页翻完不重复、不遗漏
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentCursorPaginationTests {
+
+	private static final int TOP_LEVEL = 7;
+	private static final int REPLIES = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User author;
+	private Post post;
+	private Comment root;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("cursor_commenter", "secret", "cursor_commenter@xuebao.com"));
+		post = postRepository.save(new Post("评论分页", "正文", author));
+		for (int i = 0; i < TOP_LEVEL; i++) {
+			root = commentService.createComment(new Comment("顶级评论 " + i, post, author));
+		}
+		for (int i = 0; i < REPLIES; i++) {
+			Comment reply = new Comment("回复 " + i, post, author);
+			reply.setParentComment(root);
+			commentService.createComment(reply);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		postRepository.deleteById(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void topLevelCommentsPageNewestFirst() throws Exception {
+		List<String> contents = collect(() -> get("/api/comments/post/{postId}", post.getId()).param("mode", "cursor"));
+		assertThat(contents).hasSize(TOP_LEVEL);
+		assertThat(contents.get(0)).isEqualTo("顶级评论 " + (TOP_LEVEL - 1));
+	}
+
+	@Test
+	void repliesPageOldestFirst() throws Exception {
+		List<String> contents = collect(() -> get("/api/comments/{commentId}/replies", root.getId()).param("mode", "cursor"));
+		assertThat(contents).containsExactly("回复 0", "回复 1", "回复 2", "回复 3", "回复 4");
+	}
+
+	@Test
+	void userCommentsCoverEverything() throws Exception {
+		assertThat(collect(() -> get("/api/comments/user/{userId}", author.getId()))).hasSize(TOP_LEVEL + REPLIES);
+	}
+
+	// 以每页 2 条翻到最后一页，收集所有评论内容
+	private List<String> collect(Supplier<MockHttpServletRequestBuilder> listing) throws Exception {
+		List<String> contents = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder request = listing.get().param("size", "2");
+			if (cursor != null) {
+				request = request.param("after", cursor);
+			}
+			String body = mockMvc.perform(request).andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			JsonNode page = objectMapper.readTree(body).get("data");
+			page.get("content").forEach(node -> contents.add(node.get("content").asText()));
+			cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+		} while (cursor != null);
+		return contents;
+	}
+}
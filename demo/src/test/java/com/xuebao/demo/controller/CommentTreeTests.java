@@ -0,0 +1,163 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.CommentService;
+import com.xuebao.demo.service.cache.CommentAuthorCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 评论树接口：一条查询加载整篇文章的评论（作者另由一条 IN 查询批量解析），并按深度/每层条数截断
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentTreeTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CommentAuthorCache commentAuthorCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User author;
+	private Post post;
+	private Comment older;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("tree_author", "secret", "tree_author@xuebao.com"));
+		post = postRepository.save(new Post("评论树", "正文", author));
+
+		older = commentService.createComment(new Comment("较早的顶级评论", post, author));
+		Comment first = reply("回复一", older);
+		reply("回复二", older);
+		reply("回复三", older);
+		reply("回复一的回复", first);
+		commentService.createComment(new Comment("较新的顶级评论", post, author));
+
+		commentAuthorCache.evictAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		postRepository.deleteById(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void wholeTreeLoadsWithRowsAndAuthorsQueries() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}/tree", post.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.totalCount").value(6))
+				.andExpect(jsonPath("$.data.comments[0].content").value("较新的顶级评论"))
+				.andExpect(jsonPath("$.data.comments[1].replyCount").value(3))
+				.andExpect(jsonPath("$.data.comments[1].replies[0].content").value("回复一"))
+				.andExpect(jsonPath("$.data.comments[1].replies[0].replies[0].content").value("回复一的回复"))
+				.andExpect(jsonPath("$.data.comments[1].replies[0].author.username").value("tree_author"));
+
+		// 评论行一条，作者摘要一条 IN 查询
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void depthAndPerLevelLimitsTruncateTree() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}/tree", post.getId())
+						.param("maxDepth", "2").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.comments[1].replyCount").value(3))
+				.andExpect(jsonPath("$.data.comments[1].replies.length()").value(2))
+				.andExpect(jsonPath("$.data.comments[1].replies[0].replyCount").value(1))
+				.andExpect(jsonPath("$.data.comments[1].replies[0].replies.length()").value(0));
+	}
+
+	@Test
+	void threadLoadsSubtreeByPathRange() throws Exception {
+		mockMvc.perform(get("/api/comments/{commentId}/thread", older.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.totalCount").value(5))
+				.andExpect(jsonPath("$.data.comments.length()").value(1))
+				.andExpect(jsonPath("$.data.comments[0].content").value("较早的顶级评论"))
+				.andExpect(jsonPath("$.data.comments[0].replies[0].replies[0].content").value("回复一的回复"));
+		// 根评论 + 子树区间查询 + 作者 IN 查询
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+		mockMvc.perform(get("/api/comments/{commentId}/thread", older.getId()).param("maxDepth", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.totalCount").value(4));
+	}
+
+	@Test
+	void pathlessLegacyThreadFallsBackToRecursiveQuery() throws Exception {
+		jdbcTemplate.update("UPDATE comments SET path = NULL, depth = NULL WHERE post_id = ?", post.getId());
+		statistics.clear();
+
+		mockMvc.perform(get("/api/comments/{commentId}/thread", older.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.totalCount").value(5))
+				.andExpect(jsonPath("$.data.comments.length()").value(1))
+				.andExpect(jsonPath("$.data.comments[0].replyCount").value(3))
+				.andExpect(jsonPath("$.data.comments[0].replies[0].content").value("回复一"))
+				.andExpect(jsonPath("$.data.comments[0].replies[0].replies[0].content").value("回复一的回复"));
+		// 根评论 + 递归子树查询 + 作者 IN 查询，与按路径时相同
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+		mockMvc.perform(get("/api/comments/{commentId}/thread", older.getId()).param("maxDepth", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.comments[0].replies[0].replyCount").value(1))
+				.andExpect(jsonPath("$.data.comments[0].replies[0].replies.length()").value(0));
+	}
+
+	@Test
+	void missingPostOrCommentReturnsNotFound() throws Exception {
+		mockMvc.perform(get("/api/comments/post/{postId}/tree", Long.MAX_VALUE))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.success").value(false));
+		mockMvc.perform(get("/api/comments/{commentId}/thread", Long.MAX_VALUE))
+				.andExpect(status().isNotFound());
+	}
+
+	private Comment reply(String content, Comment parent) {
+		Comment reply = new Comment(content, post, author);
+		reply.setParentComment(parent);
+		return commentService.createComment(reply);
+	}
+}
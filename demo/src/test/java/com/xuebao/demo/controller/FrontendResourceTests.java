@@ -0,0 +1,66 @@
+package com.xuebao.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.forwardedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 前端静态资源：html 改写为带版本号的资源链接并按 ETag 验证，带版本号的 css/js 长期缓存且返回预压缩文件
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class FrontendResourceTests {
+
+	private static final Pattern VERSIONED_SCRIPT = Pattern.compile("src=\"(js/api-[0-9a-f]{32}\\.js)\"");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void htmlLinksToVersionedAssetsAndRevalidates() throws Exception {
+		MvcResult page = mockMvc.perform(get("/index.html"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andReturn();
+		String html = page.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(html).containsPattern("href=\"css/style-[0-9a-f]{32}\\.css\"");
+		assertThat(html).containsPattern(VERSIONED_SCRIPT);
+
+		String eTag = page.getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/index.html").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(get("/")).andExpect(forwardedUrl("/index.html"));
+	}
+
+	@Test
+	void versionedAssetsAreImmutableAndPrecompressed() throws Exception {
+		String html = mockMvc.perform(get("/post-detail.html"))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		Matcher matcher = VERSIONED_SCRIPT.matcher(html);
+		assertThat(matcher.find()).isTrue();
+
+		mockMvc.perform(get("/" + matcher.group(1)).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+	}
+}
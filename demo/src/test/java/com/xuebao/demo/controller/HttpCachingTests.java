@@ -0,0 +1,137 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.CommentService;
+import com.xuebao.demo.service.PostService;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag / Last-Modified 条件请求：版本未变时 304 且不加载完整实体，变化后返回新内容
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class HttpCachingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private PostDetailCache postDetailCache;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User author;
+	private Post post;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("etag_author", "secret", "etag_author@xuebao.com"));
+		post = postRepository.save(new Post("条件请求", "正文", author));
+		commentService.createComment(new Comment("第一条评论", post, author));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		// 通过 PostService 删除，同步清理检索索引（updatePost 会写入索引）
+		postService.deletePost(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void postDetailRevalidatesWithVersionQuery() throws Exception {
+		String eTag = mockMvc.perform(get("/api/posts/{id}", post.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		// 浏览量不参与版本，详情使用弱 ETag
+		assertThat(eTag).startsWith("W/\"p" + post.getId() + "-");
+
+		// 详情不在缓存中时只执行一条版本查询，不加载实体
+		postDetailCache.evict(post.getId());
+		statistics.clear();
+		mockMvc.perform(get("/api/posts/{id}", post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(content().string(""));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		Post changes = new Post();
+		changes.setTitle("条件请求（已修改）");
+		postService.updatePost(post.getId(), changes);
+
+		mockMvc.perform(get("/api/posts/{id}", post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+	}
+
+	@Test
+	void commentListChangesVersionWhenCommentAdded() throws Exception {
+		String eTag = mockMvc.perform(get("/api/comments/post/{postId}", post.getId()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		statistics.clear();
+		mockMvc.perform(get("/api/comments/post/{postId}", post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		commentService.createComment(new Comment("第二条评论", post, author));
+
+		mockMvc.perform(get("/api/comments/post/{postId}", post.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void listingsAllowSharedCachingAndRevalidation() throws Exception {
+		String eTag = mockMvc.perform(get("/api/posts"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("s-maxage=")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).isNotBlank();
+
+		mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+}
@@ -0,0 +1,131 @@
+package com.xuebao.demo.controller;
+
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 文章列表接口的 SQL 语句数断言
+ * 每次列表调用的语句数必须与页大小无关（不允许按行加载作者）
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class PostControllerQueryCountTests {
+
+	private static final int AUTHORS = 5;
+	private static final int POSTS_PER_AUTHOR = 4;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		// 通过 PostService 删除，同步清理检索索引
+		postRepository.findAll().forEach(post -> postService.deletePost(post.getId()));
+		userRepository.deleteAll();
+		for (int i = 0; i < AUTHORS; i++) {
+			User author = userRepository.save(new User("qc_author_" + i, "secret", "qc_author_" + i + "@xuebao.com"));
+			for (int j = 0; j < POSTS_PER_AUTHOR; j++) {
+				Post post = new Post("标题 " + i + "-" + j, "正文内容 " + i + "-" + j, author);
+				post.setStatus(PostStatus.PUBLISHED);
+				postService.save(post);
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void offsetListingUsesSelectPlusCount() throws Exception {
+		mockMvc.perform(get("/api/posts").param("size", "20")).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cursorListingUsesSingleSelect() throws Exception {
+		mockMvc.perform(get("/api/posts").param("mode", "cursor").param("size", "20")).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void statusListingDoesNotLoadAuthorsPerRow() throws Exception {
+		mockMvc.perform(get("/api/posts/status/PUBLISHED").param("size", "20")).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void filterListingLoadsSearchHitsInOneQuery() throws Exception {
+		mockMvc.perform(get("/api/posts/filter").param("keyword", "正文").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.totalElements").value(AUTHORS * POSTS_PER_AUTHOR));
+		// 检索引擎给出 id，摘要通过一次 IN 查询回填
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void postDetailFetchesAuthorInSameStatement() throws Exception {
+		Long id = postRepository.findAll().get(0).getId();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/posts/{id}", id)).andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void exportStreamsAllSummariesInOneStatement() throws Exception {
+		MvcResult json = mockMvc.perform(get("/api/posts/all")).andExpect(request().asyncStarted()).andReturn();
+		mockMvc.perform(asyncDispatch(json))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.data.length()").value(AUTHORS * POSTS_PER_AUTHOR))
+				.andExpect(jsonPath("$.data[0].author.username").exists());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		MvcResult ndjson = mockMvc.perform(get("/api/posts/all").param("format", "ndjson")).andReturn();
+		String body = mockMvc.perform(asyncDispatch(ndjson))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(body.split("\n")).hasSize(AUTHORS * POSTS_PER_AUTHOR).allMatch(line -> line.startsWith("{\"id\":"));
+	}
+}
@@ -0,0 +1,132 @@
+package com.xuebao.demo.filter;
+
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.UserPrincipal;
+import com.xuebao.demo.service.UserPrincipalCache;
+import com.xuebao.demo.service.UserService;
+import com.xuebao.demo.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JWT 过滤器的用户详情缓存与令牌声明模式，认证主体携带用户 id
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+	@Autowired
+	private UserPrincipalCache userPrincipalCache;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User user;
+	private String token;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User("jwt_cached", "secret", "jwt_cached@xuebao.com"));
+		token = jwtUtil.generateToken(user.getUsername());
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userPrincipalCache.evict(user.getUsername());
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void cachedPrincipalSkipsDatabaseUntilUserIsDisabled() throws Exception {
+		UserPrincipalCache.Stats before = userPrincipalCache.getStats();
+
+		authenticatedRequest(token, 200);
+		authenticatedRequest(token, 200);
+
+		UserPrincipalCache.Stats after = userPrincipalCache.getStats();
+		assertThat(after.getDatabaseLookups() - before.getDatabaseLookups()).isEqualTo(1);
+		assertThat(after.getCacheHits() - before.getCacheHits()).isEqualTo(1);
+
+		userService.setEnabled(user.getId(), false);
+		authenticatedRequest(token, 401);
+	}
+
+	@Test
+	void claimsModeTrustsTokenWithoutLookup() throws Exception {
+		UserPrincipal details = new UserPrincipal(user.getId(), user.getUsername(), "", true,
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+		String claimsToken = jwtUtil.generateToken(details);
+		UserPrincipalCache.Stats before = userPrincipalCache.getStats();
+
+		ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", "claims");
+		try {
+			authenticatedRequest(claimsToken, 200);
+		} finally {
+			ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", "cache");
+		}
+
+		UserPrincipalCache.Stats after = userPrincipalCache.getStats();
+		assertThat(after.getDatabaseLookups()).isEqualTo(before.getDatabaseLookups());
+		assertThat(after.getClaimsAuthentications() - before.getClaimsAuthentications()).isEqualTo(1);
+	}
+
+	@Test
+	void principalCarriesUserIdForWriteEndpoints() throws Exception {
+		authenticatedRequest(token, 200);
+		assertThat(userPrincipalCache.get(user.getUsername()).getId()).isEqualTo(user.getId());
+
+		// 写接口直接使用主体中的 id：缓存命中时只有点赞本身的一条语句
+		statistics.clear();
+		mockMvc.perform(delete("/api/posts/{id}/like", -1L).header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void anonymousRequestsToUserScopedEndpointsAreUnauthorized() throws Exception {
+		mockMvc.perform(get("/api/likes/posts").param("ids", "1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/likes/comments").param("ids", "1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(delete("/api/comments/{id}/like", 1)).andExpect(status().isUnauthorized());
+	}
+
+	private void authenticatedRequest(String bearer, int expectedStatus) throws Exception {
+		mockMvc.perform(get("/api/likes/posts").param("ids", "1")
+						.header("Authorization", "Bearer " + bearer))
+				.andExpect(status().is(expectedStatus));
+	}
+}
@@ -0,0 +1,55 @@
+package com.xuebao.demo.filter;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表内容 ETag：忽略包装器的 timestamp，写弱 ETag，内容变化时 ETag 随之变化
+ */
+class ListingEtagFilterTests {
+
+	@Test
+	void wrapperTimestampDoesNotChangeEtag() throws Exception {
+		String first = render("{\"code\":200,\"data\":[1,2],\"timestamp\":\"2026-10-18 10:00:00\"}", null).getHeader(HttpHeaders.ETAG);
+		String second = render("{\"code\":200,\"data\":[1,2],\"timestamp\":\"2026-10-18 10:00:07\"}", null).getHeader(HttpHeaders.ETAG);
+		String changed = render("{\"code\":200,\"data\":[1,3],\"timestamp\":\"2026-10-18 10:00:07\"}", null).getHeader(HttpHeaders.ETAG);
+
+		assertThat(first).startsWith("W/\"0").isEqualTo(second);
+		assertThat(changed).isNotEqualTo(first);
+	}
+
+	@Test
+	void matchingIfNoneMatchReturnsNotModified() throws Exception {
+		String eTag = render("{\"data\":[],\"timestamp\":\"2026-10-18 10:00:00\"}", null).getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse response = render("{\"data\":[],\"timestamp\":\"2026-10-18 10:00:59\"}", eTag);
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	private MockHttpServletResponse render(String body, String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new ListingEtagFilter().doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+				res.setContentType("application/json");
+				res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		});
+		return response;
+	}
+}
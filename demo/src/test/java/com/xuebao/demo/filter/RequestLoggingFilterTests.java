@@ -0,0 +1,65 @@
+package com.xuebao.demo.filter;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 请求 id 与单次请求调试开关的 MDC 处理
+ */
+class RequestLoggingFilterTests {
+
+	@Test
+	void propagatesRequestIdAndDebugFlagOnlyForTheRequest() throws Exception {
+		RequestLoggingFilter filter = new RequestLoggingFilter();
+		ReflectionTestUtils.setField(filter, "requestDebugEnabled", true);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+		request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "abc123");
+		request.addHeader(RequestLoggingFilter.DEBUG_HEADER, "true");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		Map<String, String> seen = new HashMap<>();
+		filter.doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+				seen.putAll(MDC.getCopyOfContextMap());
+			}
+		});
+
+		assertThat(seen).containsEntry(RequestLoggingFilter.MDC_REQUEST_ID, "abc123")
+				.containsEntry(RequestLoggingFilter.MDC_DEBUG, "true");
+		assertThat(response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER)).isEqualTo("abc123");
+		assertThat(MDC.get(RequestLoggingFilter.MDC_REQUEST_ID)).isNull();
+		assertThat(MDC.get(RequestLoggingFilter.MDC_DEBUG)).isNull();
+	}
+
+	@Test
+	void ignoresDebugHeaderWhenDisabled() throws Exception {
+		RequestLoggingFilter filter = new RequestLoggingFilter();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+		request.addHeader(RequestLoggingFilter.DEBUG_HEADER, "true");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		Map<String, String> seen = new HashMap<>();
+		filter.doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+				seen.putAll(MDC.getCopyOfContextMap());
+			}
+		});
+
+		assertThat(seen).containsKey(RequestLoggingFilter.MDC_REQUEST_ID)
+				.doesNotContainKey(RequestLoggingFilter.MDC_DEBUG);
+		assertThat(response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER)).isNotBlank();
+	}
+}
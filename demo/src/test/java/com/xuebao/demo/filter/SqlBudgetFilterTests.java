@@ -0,0 +1,77 @@
+package com.xuebao.demo.filter;
+
+import com.xuebao.demo.util.SqlRequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 每请求 SQL 统计、指纹与严格模式
+ */
+class SqlBudgetFilterTests {
+
+	@Test
+	void fingerprintIgnoresLiteralsAndInListLength() {
+		assertThat(SqlRequestContext.fingerprint("select * from posts  where id in (?, ?, ?) and title = 'a''b' limit 10"))
+				.isEqualTo(SqlRequestContext.fingerprint("select * from posts where id in (?,?) and title = 'x' limit 20"))
+				.isEqualTo("select * from posts where id in (?...) and title = ? limit ?");
+	}
+
+	@Test
+	void recordsMetricsAndFailsDeclaredBudgetInStrictMode() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SqlBudgetFilter filter = new SqlBudgetFilter(registry, 10, 50, true);
+
+		assertThatThrownBy(() -> filter.doFilter(request(), new MockHttpServletResponse(), executing(3, 1)))
+				.isInstanceOf(SqlBudgetExceededException.class)
+				.hasMessageContaining("3x")
+				.hasMessageContaining("select * from comments where author_id = ?");
+
+		assertThat(registry.get("blog.sql.statements").tag("uri", "/api/comments/post/{postId}").summary().totalAmount())
+				.isEqualTo(3);
+		assertThat(registry.get("blog.sql.budget.violations").tag("kind", "statements").counter().count())
+				.isEqualTo(1);
+		assertThat(SqlRequestContext.current()).isNull();
+	}
+
+	@Test
+	void defaultBudgetOnlyLogs() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SqlBudgetFilter filter = new SqlBudgetFilter(registry, 2, 50, true);
+
+		filter.doFilter(request(), new MockHttpServletResponse(), executing(3, null));
+
+		assertThat(registry.get("blog.sql.budget.violations").counter().count()).isEqualTo(1);
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/comments/post/1");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/comments/post/{postId}");
+		return request;
+	}
+
+	/**
+	 * 模拟控制器：按 @SqlBudget 设置预算（为 null 时不声明），再执行 statements 条同指纹语句
+	 */
+	private static MockFilterChain executing(int statements, Integer declaredBudget) {
+		return new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) {
+				if (declaredBudget != null) {
+					SqlRequestContext.current().setBudget(declaredBudget, -1);
+				}
+				for (int i = 0; i < statements; i++) {
+					SqlRequestContext.record("select * from comments where author_id = " + i, 1_000);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,70 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文章评论数的增量维护与校正
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class CommentCountTests {
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private CommentCountReconciler commentCountReconciler;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void commentCountFollowsCreatesAndCascadedDeletes() {
+		User author = userRepository.save(new User("cc_author", "secret", "cc_author@xuebao.com"));
+		Post post = postRepository.save(new Post("评论数", "正文", author));
+
+		Comment root = commentService.createComment(new Comment("顶级评论", post, author));
+		Comment reply = newReply("回复", post, author, root);
+		newReply("回复的回复", post, author, reply);
+		commentService.createComment(new Comment("另一条顶级评论", post, author));
+		assertThat(commentCount(post)).isEqualTo(4);
+
+		commentService.deleteComment(root.getId(), author.getId());
+		assertThat(commentCount(post)).isEqualTo(1);
+
+		jdbcTemplate.update("UPDATE posts SET comment_count = 42 WHERE id = ?", post.getId());
+		assertThat(commentCountReconciler.reconcile()).isEqualTo(1);
+		assertThat(commentCount(post)).isEqualTo(1);
+		assertThat(commentCountReconciler.reconcile()).isZero();
+
+		postRepository.delete(post);
+		userRepository.delete(author);
+	}
+
+	private Comment newReply(String content, Post post, User author, Comment parent) {
+		Comment reply = new Comment(content, post, author);
+		reply.setParentComment(parent);
+		return commentService.createComment(reply);
+	}
+
+	private int commentCount(Post post) {
+		return postRepository.findById(post.getId()).orElseThrow().getCommentCount();
+	}
+}
@@ -0,0 +1,136 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.CommentRepository;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.util.CommentPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 评论物化路径：创建时写入路径与层级，按路径区间一条语句删除子树，未回填路径的旧评论按 id 删除，层级上限
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class CommentPathTests {
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User author;
+	private Post post;
+	private Comment root;
+	private Comment reply;
+	private Comment nested;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("path_author", "secret", "path_author@xuebao.com"));
+		post = postRepository.save(new Post("物化路径", "正文", author));
+		root = commentService.createComment(new Comment("顶级评论", post, author));
+		reply = reply("回复", root);
+		nested = reply("回复的回复", reply);
+		commentService.createComment(new Comment("另一条顶级评论", post, author));
+	}
+
+	@AfterEach
+	void tearDown() {
+		postRepository.deleteById(post.getId());
+		userRepository.deleteById(author.getId());
+	}
+
+	@Test
+	void createAssignsPathAndDepthFromParent() {
+		Comment storedRoot = commentRepository.findById(root.getId()).orElseThrow();
+		Comment storedReply = commentRepository.findById(reply.getId()).orElseThrow();
+		Comment storedNested = commentRepository.findById(nested.getId()).orElseThrow();
+
+		assertThat(storedRoot.getPath()).isEqualTo(CommentPath.append(null, root.getId()));
+		assertThat(storedRoot.getDepth()).isZero();
+		assertThat(storedReply.getPath()).isEqualTo(CommentPath.append(storedRoot.getPath(), reply.getId()));
+		assertThat(storedReply.getDepth()).isEqualTo(1);
+		assertThat(storedNested.getPath()).isEqualTo(CommentPath.append(storedReply.getPath(), nested.getId()));
+		assertThat(storedNested.getDepth()).isEqualTo(2);
+	}
+
+	@Test
+	void deleteRemovesSubtreeInOneStatementAndAdjustsCommentCount() {
+		assertThat(commentCount()).isEqualTo(4);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		commentService.deleteComment(root.getId(), author.getId());
+
+		// 读取根评论 + 子树区间 DELETE + 评论数 UPDATE，与子树大小无关
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(commentRepository.existsById(reply.getId())).isFalse();
+		assertThat(commentRepository.existsById(nested.getId())).isFalse();
+		assertThat(commentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void pathlessLegacySubtreeIsDeletedByIds() {
+		jdbcTemplate.update("UPDATE comments SET path = NULL, depth = NULL WHERE id IN (?, ?, ?)",
+				root.getId(), reply.getId(), nested.getId());
+		// 父评论没有路径时，新回复的路径和层级也留空，等回填语句统一补齐
+		Comment legacyReply = reply("旧评论下的新回复", nested);
+		Comment storedLegacyReply = commentRepository.findById(legacyReply.getId()).orElseThrow();
+		assertThat(storedLegacyReply.getPath()).isNull();
+		assertThat(storedLegacyReply.getDepth()).isNull();
+		assertThat(commentCount()).isEqualTo(5);
+
+		commentService.deleteComment(root.getId(), author.getId());
+
+		assertThat(commentRepository.countByPostId(post.getId())).isEqualTo(1);
+		assertThat(commentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void replyBeyondMaxDepthIsRejected() {
+		jdbcTemplate.update("UPDATE comments SET depth = ? WHERE id = ?", CommentPath.MAX_DEPTH, nested.getId());
+
+		assertThatThrownBy(() -> reply("过深的回复", nested))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("回复层级过深");
+		assertThat(commentCount()).isEqualTo(4);
+	}
+
+	private Comment reply(String content, Comment parent) {
+		Comment reply = new Comment(content, post, author);
+		reply.setParentComment(parent);
+		return commentService.createComment(reply);
+	}
+
+	private int commentCount() {
+		return postRepository.findById(post.getId()).orElseThrow().getCommentCount();
+	}
+}
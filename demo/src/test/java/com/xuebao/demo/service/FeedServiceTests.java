@@ -0,0 +1,174 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.dto.response.PostSummary;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.repository.FeedItemRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.feed.FeedService;
+import com.xuebao.demo.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 关注动态：发布时写扩散、读取一条语句、大 V 读时拉取、取消关注后移除
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class FeedServiceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private FeedService feedService;
+
+	@Autowired
+	private FollowService followService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private FeedItemRepository feedItemRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User reader;
+	private User author;
+	private final List<Post> posts = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		reader = userRepository.save(new User("feed_reader", "secret", "feed_reader@xuebao.com"));
+		author = userRepository.save(new User("feed_author", "secret", "feed_author@xuebao.com"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		posts.forEach(post -> postService.deletePost(post.getId()));
+		userRepository.deleteById(reader.getId());
+		userRepository.deleteById(author.getId());
+		feedService.refreshCelebrities();
+	}
+
+	@Test
+	void publishFansOutAndFeedIsOneKeyedQuery() throws Exception {
+		String token = "Bearer " + jwtUtil.generateToken(reader.getUsername());
+		mockMvc.perform(post("/api/users/{id}/follow", author.getId()).header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.changed").value(true));
+		assertThat(userRepository.findById(author.getId()).orElseThrow().getFollowerCount()).isEqualTo(1);
+		assertThat(userRepository.findById(reader.getId()).orElseThrow().getFollowingCount()).isEqualTo(1);
+
+		Post first = publish("第一篇");
+		Post second = publish("第二篇");
+		publishDraft("草稿");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		assertThat(ids(feedService.getFeed(reader.getId(), null, 10).getContent()))
+				.containsExactly(second.getId(), first.getId());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		// 未超出 max-items，裁剪不删除任何动态
+		assertThat(feedService.trim()).isZero();
+
+		mockMvc.perform(get("/api/feed").param("size", "1").header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.content[0].id").value(second.getId()))
+				.andExpect(jsonPath("$.data.hasNext").value(true));
+
+		mockMvc.perform(delete("/api/users/{id}/follow", author.getId()).header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.following").value(false));
+		assertThat(feedService.getFeed(reader.getId(), null, 10).getContent()).isEmpty();
+		assertThat(userRepository.findById(author.getId()).orElseThrow().getFollowerCount()).isZero();
+	}
+
+	@Test
+	void celebrityPostsArePulledOnRead() {
+		author.setFollowerCount(1_000_000);
+		author = userRepository.save(author);
+		feedService.refreshCelebrities();
+		followService.follow(reader.getId(), author.getId());
+
+		long before = feedItemRepository.count();
+		Post pulled = publish("大 V 新文章");
+		assertThat(feedItemRepository.count()).isEqualTo(before);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		assertThat(ids(feedService.getFeed(reader.getId(), null, 10).getContent())).containsExactly(pulled.getId());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void demotedCelebrityPostsAreBackfilledToFollowers() {
+		author.setFollowerCount(1_000_000);
+		author = userRepository.save(author);
+		feedService.refreshCelebrities();
+		followService.follow(reader.getId(), author.getId());
+		Post first = publish("大 V 时期的文章一");
+		Post second = publish("大 V 时期的文章二");
+		assertThat(ids(feedItemRepository.findFirstSlice(reader.getId(), PostStatus.PUBLISHED, PageRequest.of(0, 10)).getContent()))
+				.isEmpty();
+
+		author.setFollowerCount(1);
+		author = userRepository.save(author);
+		feedService.refreshCelebrities();
+
+		assertThat(feedService.isCelebrity(author.getId())).isFalse();
+		assertThat(ids(feedService.getFeed(reader.getId(), null, 10).getContent()))
+				.containsExactly(second.getId(), first.getId());
+
+		// 跌出名单后发布的文章正常写扩散，与补写的文章不重复
+		Post third = publish("跌出名单后的文章");
+		assertThat(ids(feedService.getFeed(reader.getId(), null, 10).getContent()))
+				.containsExactly(third.getId(), second.getId(), first.getId());
+	}
+
+	private Post publish(String title) {
+		Post post = new Post(title, "正文", author);
+		post.setStatus(PostStatus.PUBLISHED);
+		Post saved = postService.save(post);
+		posts.add(saved);
+		return saved;
+	}
+
+	private void publishDraft(String title) {
+		posts.add(postService.save(new Post(title, "正文", author)));
+	}
+
+	private static List<Long> ids(List<PostSummary> summaries) {
+		return summaries.stream().map(PostSummary::getId).toList();
+	}
+}
@@ -0,0 +1,64 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 点赞幂等性、计数批量写回与批量状态查询
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "blog.like-count.flush-interval-ms=3600000")
+class LikeServiceTests {
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void likeAndUnlikeAreIdempotentAndCountersAreBatched() {
+		User reader = userRepository.save(new User("like_reader", "secret", "like_reader@xuebao.com"));
+		User other = userRepository.save(new User("like_other", "secret", "like_other@xuebao.com"));
+		Post liked = postRepository.save(new Post("点赞一", "正文", reader));
+		Post notLiked = postRepository.save(new Post("点赞二", "正文", reader));
+
+		assertThat(likeService.likePost(reader.getId(), liked.getId()).isChanged()).isTrue();
+		assertThat(likeService.likePost(reader.getId(), liked.getId()).isChanged()).isFalse();
+		assertThat(likeService.likePost(other.getId(), liked.getId()).isChanged()).isTrue();
+		assertThat(likeService.getPendingPostLikes(liked.getId())).isEqualTo(2);
+
+		likeService.flush();
+		assertThat(postRepository.findById(liked.getId()).orElseThrow().getLikeCount()).isEqualTo(2);
+
+		assertThat(likeService.unlikePost(other.getId(), liked.getId()).isChanged()).isTrue();
+		assertThat(likeService.unlikePost(other.getId(), liked.getId()).isChanged()).isFalse();
+		likeService.flush();
+		assertThat(postRepository.findById(liked.getId()).orElseThrow().getLikeCount()).isEqualTo(1);
+
+		Map<Long, Boolean> states = likeService.getPostLikeStates(reader.getId(), List.of(notLiked.getId(), liked.getId()));
+		assertThat(states).containsExactly(Map.entry(notLiked.getId(), false), Map.entry(liked.getId(), true));
+
+		assertThatThrownBy(() -> likeService.likePost(reader.getId(), -1L))
+				.isInstanceOf(ResponseStatusException.class);
+
+		postRepository.deleteAll(List.of(liked, notLiked));
+		userRepository.deleteAll(List.of(reader, other));
+	}
+}
@@ -0,0 +1,133 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.cache.PostDetailCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文章详情缓存：命中、精确失效（含点赞/评论计数变化）与并发未命中合并
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class PostDetailCacheTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostDetailCache postDetailCache;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User author;
+	private Post post;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("cache_author", "secret", "cache_author@xuebao.com"));
+		post = postService.save(new Post("缓存标题", "缓存正文", author));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		postService.deletePost(post.getId());
+		userRepository.delete(author);
+	}
+
+	@Test
+	void repeatedReadsHitCacheAndUpdatesInvalidate() {
+		long hitsBefore = postDetailCache.getStats().getHitCount();
+
+		assertThat(postService.getPostById(post.getId())).isPresent();
+		assertThat(postService.getPostById(post.getId())).isPresent();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(postDetailCache.getStats().getHitCount()).isEqualTo(hitsBefore + 1);
+
+		Post changes = new Post();
+		changes.setTitle("新标题");
+		postService.updatePost(post.getId(), changes);
+
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getTitle()).isEqualTo("新标题");
+	}
+
+	@Test
+	void likeFlushAndCommentWritesInvalidateCounters() {
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getLikeCount()).isZero();
+		String eTag = postService.getPostVersion(post.getId()).getETag();
+
+		likeService.likePost(author.getId(), post.getId());
+		// 写回前详情仍是缓存中的旧值，写回后失效
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getLikeCount()).isZero();
+		likeService.flush();
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getLikeCount()).isEqualTo(1);
+		assertThat(postService.getPostVersion(post.getId()).getETag()).isNotEqualTo(eTag);
+		eTag = postService.getPostVersion(post.getId()).getETag();
+
+		Comment comment = commentService.createComment(new Comment("评论", post, author));
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getCommentCount()).isEqualTo(1);
+		assertThat(postService.getPostVersion(post.getId()).getETag()).isNotEqualTo(eTag);
+
+		commentService.deleteComment(comment.getId(), author.getId());
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getCommentCount()).isZero();
+
+		likeService.unlikePost(author.getId(), post.getId());
+		likeService.flush();
+		assertThat(postService.getPostById(post.getId()).orElseThrow().getLikeCount()).isZero();
+	}
+
+	@Test
+	void concurrentMissesLoadOnce() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Post>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return postService.getPostById(post.getId()).orElseThrow();
+				}));
+			}
+			start.countDown();
+			for (Future<Post> result : results) {
+				assertThat(result.get().getTitle()).isEqualTo("缓存标题");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,107 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.dto.response.PostSearchHit;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Lucene 检索后端：标题加权、高亮转义、索引随增删改同步、特殊字符关键词
+ * 每个用例使用独立的英文关键词，避免与共享数据库中其他测试的文章互相命中
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class PostSearchTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("search_author", "secret", "search_author@xuebao.com"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		postRepository.deleteAll(postRepository.findAll().stream()
+				.filter(post -> post.getAuthor() != null && author.getId().equals(post.getAuthor().getId()))
+				.toList());
+		userRepository.delete(author);
+	}
+
+	@Test
+	void titleMatchRanksAboveContentMatch() {
+		Post inContent = postService.save(new Post("普通标题", "这篇文章的正文提到了 quokka 这个词", author));
+		Post inTitle = postService.save(new Post("quokka 观察笔记", "正文没有出现关键词", author));
+
+		List<Long> ids = search("quokka").getContent().stream().map(PostSearchHit::getId).toList();
+		assertThat(ids).containsExactly(inTitle.getId(), inContent.getId());
+	}
+
+	@Test
+	void highlightIsHtmlEscaped() {
+		Post post = postService.save(new Post("高亮转义", "<script>alert(1)</script> axolotl 出现在脚本后面", author));
+
+		Page<PostSearchHit> result = search("axolotl");
+		assertThat(result.getContent()).extracting(PostSearchHit::getId).containsExactly(post.getId());
+		String highlight = result.getContent().get(0).getHighlight();
+		assertThat(highlight)
+				.contains("<em>axolotl</em>")
+				.contains("&lt;script&gt;")
+				.doesNotContain("<script>");
+	}
+
+	@Test
+	void indexFollowsSaveUpdateAndDelete() {
+		Post post = postService.save(new Post("pangolin 初稿", "正文", author));
+		assertThat(search("pangolin").getContent()).extracting(PostSearchHit::getId).containsExactly(post.getId());
+
+		Post changes = new Post();
+		changes.setId(post.getId());
+		changes.setTitle("narwhal 修订稿");
+		changes.setContent("正文已改写");
+		postService.save(changes);
+		assertThat(search("pangolin").getContent()).isEmpty();
+		assertThat(search("narwhal").getContent()).extracting(PostSearchHit::getId).containsExactly(post.getId());
+
+		postService.deletePostOrThrow(post.getId());
+		assertThat(search("narwhal").getContent()).isEmpty();
+		assertThat(search("narwhal").getTotalElements()).isZero();
+	}
+
+	@Test
+	void specialCharactersInKeywordDoNotFail() {
+		Post post = postService.save(new Post("C++ 与 okapi", "正文", author));
+
+		for (String keyword : List.of("c++", "okapi AND (", "\"okapi", "okapi:*", "okapi~ ^2 [a TO b]", "\\", "!")) {
+			assertThatCode(() -> search(keyword)).as(keyword).doesNotThrowAnyException();
+		}
+		assertThat(search("okapi:*").getContent()).extracting(PostSearchHit::getId).contains(post.getId());
+	}
+
+	private Page<PostSearchHit> search(String keyword) {
+		return postService.comprehensiveSearch(keyword, PageRequest.of(0, 10));
+	}
+}
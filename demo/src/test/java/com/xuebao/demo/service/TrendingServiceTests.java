@@ -0,0 +1,147 @@
+package com.xuebao.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xuebao.demo.dto.response.TrendingPost;
+import com.xuebao.demo.entity.Comment;
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.enums.PostStatus;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.PostScoreRepository;
+import com.xuebao.demo.repository.UserRepository;
+import com.xuebao.demo.service.trending.TrendingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 热门文章榜：事件按权重计分、读取不查库、检查点写入与重建
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class TrendingServiceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private PostScoreRepository postScoreRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User author;
+	private Post viewed;
+	private Post commented;
+	private Post liked;
+
+	@BeforeEach
+	void setUp() {
+		author = userRepository.save(new User("trending_author", "secret", "trending_author@xuebao.com"));
+		viewed = publish("多次浏览");
+		commented = publish("有评论");
+		liked = publish("有点赞");
+
+		// 权重：浏览 1、点赞 5、评论 10 → 有评论(10) > 有点赞(5) > 多次浏览(3)
+		for (int i = 0; i < 3; i++) {
+			trendingService.recordView(viewed.getId());
+		}
+		commentService.createComment(new Comment("热评", commented, author));
+		likeService.likePost(author.getId(), liked.getId());
+		trendingService.refreshSummaries();
+	}
+
+	@AfterEach
+	void tearDown() {
+		List.of(viewed, commented, liked).forEach(post -> postService.deletePost(post.getId()));
+		userRepository.delete(author);
+	}
+
+	@Test
+	void trendingEndpointRanksFromMemoryWithoutQueries() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		String body = mockMvc.perform(get("/api/posts/trending").param("window", "24h").param("size", "50"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Long> ids = new ArrayList<>();
+		for (JsonNode entry : objectMapper.readTree(body).path("data")) {
+			ids.add(entry.path("post").path("id").asLong());
+		}
+		assertThat(ours(ids)).containsExactly(commented.getId(), liked.getId(), viewed.getId());
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+
+		mockMvc.perform(get("/api/posts/trending").param("window", "5m")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void checkpointRestoresRankingAfterRestart() {
+		trendingService.checkpoint();
+
+		TrendingService restarted = new TrendingService(postRepository, postScoreRepository,
+				List.of("24h"), 1, 5, 10, 10000, 0.01, 2000, false);
+		restarted.rebuild();
+
+		List<Long> ids = restarted.getTrending("1d", TrendingService.MAX_RESULTS).stream()
+				.map(entry -> entry.getPost().getId())
+				.toList();
+		assertThat(ours(ids)).containsExactly(commented.getId(), liked.getId(), viewed.getId());
+
+		// 取消点赞后分数回落到 0，移出榜单
+		likeService.unlikePost(author.getId(), liked.getId());
+		assertThat(trendingService.getTrending("24h", TrendingService.MAX_RESULTS).stream()
+				.map(TrendingPost::getPost).map(post -> post.getId()))
+				.doesNotContain(liked.getId());
+	}
+
+	private List<Long> ours(List<Long> ids) {
+		Set<Long> mine = Set.of(viewed.getId(), commented.getId(), liked.getId());
+		return ids.stream().filter(mine::contains).toList();
+	}
+
+	private Post publish(String title) {
+		Post post = new Post(title, "正文", author);
+		post.setStatus(PostStatus.PUBLISHED);
+		return postRepository.save(post);
+	}
+}
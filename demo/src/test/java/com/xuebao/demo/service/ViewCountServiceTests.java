@@ -0,0 +1,53 @@
+package com.xuebao.demo.service;
+
+import com.xuebao.demo.entity.Post;
+import com.xuebao.demo.entity.User;
+import com.xuebao.demo.repository.PostRepository;
+import com.xuebao.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 浏览量批量写回
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "blog.view-count.flush-interval-ms=3600000")
+class ViewCountServiceTests {
+
+	@Autowired
+	private ViewCountService viewCountService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void flushAppliesAccumulatedViewsInOneBatch() {
+		User author = userRepository.save(new User("vc_author", "secret", "vc_author@xuebao.com"));
+		Post first = postRepository.save(new Post("浏览量一", "正文", author));
+		Post second = postRepository.save(new Post("浏览量二", "正文", author));
+
+		for (int i = 0; i < 3; i++) {
+			viewCountService.recordView(first.getId());
+		}
+		viewCountService.recordView(second.getId());
+		assertThat(viewCountService.getPendingViews(first.getId())).isEqualTo(3);
+
+		viewCountService.flush();
+
+		assertThat(postRepository.findById(first.getId()).orElseThrow().getViewCount()).isEqualTo(3);
+		assertThat(postRepository.findById(second.getId()).orElseThrow().getViewCount()).isEqualTo(1);
+		assertThat(viewCountService.getPendingViews(first.getId())).isZero();
+
+		postRepository.deleteAll(List.of(first, second));
+		userRepository.delete(author);
+	}
+}
@@ -0,0 +1,53 @@
+package com.xuebao.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 数据库并发许可的获取、归还与超时
+ */
+class ConcurrencyLimitedDataSourceTests {
+
+	@Test
+	void limitsConnectionsToPermitsAndReleasesOnClose() throws Exception {
+		DataSource target = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		when(target.getConnection()).thenReturn(connection);
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+
+		Connection first = dataSource.getConnection();
+		Connection second = dataSource.getConnection();
+		assertThat(dataSource.getAvailablePermits()).isZero();
+
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+		first.close();
+		first.close();
+		assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+		verify(connection, times(2)).close();
+
+		second.close();
+		assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+	}
+
+	@Test
+	void releasesPermitWhenTargetFails() throws Exception {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, Duration.ofMillis(50));
+
+		assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+		assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,96 @@
+package com.xuebao.demo.tools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 构建期预压缩前端资源：为目录下的 css/js 等文本文件生成 .gz，PATH 中有 brotli 命令时再生成 .br
+ * 运行时由 EncodedResourceResolver 按 Accept-Encoding 直接返回压缩文件，不再逐请求压缩
+ * 由 Maven 在 process-resources 阶段以单文件源码方式运行：java PrecompressAssets.java &lt;目录&gt;
+ */
+public class PrecompressAssets {
+
+    private static final Set<String> EXTENSIONS = Set.of("css", "js", "svg", "json");
+    // 太小的文件压缩收益抵不过额外的文件查找
+    private static final long MIN_SIZE = 1024;
+
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            System.out.println("[precompress] directory not found, skipping: " + root);
+            return;
+        }
+        boolean brotli = brotliAvailable();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(PrecompressAssets::eligible).toList();
+        }
+        int gzipped = 0;
+        for (Path file : files) {
+            if (gzip(file)) {
+                gzipped++;
+            }
+            if (brotli) {
+                brotli(file);
+            }
+        }
+        // 构建日志的编码因平台而异，输出只用 ASCII
+        System.out.println("[precompress] " + files.size() + " files, " + gzipped + " .gz written"
+                + (brotli ? ", .br written" : ", brotli not found, .br skipped"));
+    }
+
+    private static boolean eligible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        try {
+            return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1)) && Files.size(file) >= MIN_SIZE;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 生成 .gz；压缩后不更小时删除（EncodedResourceResolver 找不到时返回原文件）
+     */
+    private static boolean gzip(Path file) throws IOException {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            Files.copy(file, out);
+        }
+        if (Files.size(target) >= Files.size(file)) {
+            Files.delete(target);
+            return false;
+        }
+        return true;
+    }
+
+    private static void brotli(Path file) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("brotli", "--force", "--keep", "--best", file.toString())
+                .inheritIO().start();
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            throw new IOException("brotli 压缩失败: " + file);
+        }
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Process process = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+}